@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.bom_base;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import okhttp3.mockwebserver.MockWebServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares individual package lookups to bulk lookups against a local BOM-base stand-in with simulated latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BomBaseClientBenchmark {
+    private static final int PACKAGES = 1_000;
+    private static final Duration LATENCY = Duration.ofMillis(2);
+
+    @Param({"individual", "bulk"})
+    public String lookup;
+
+    private final MockWebServer server = new MockWebServer();
+    private final List<PackageURL> purls = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, MalformedPackageURLException {
+        final var stub = new BomBaseStub().withLatency(LATENCY);
+        for (int i = 0; i < PACKAGES; i++) {
+            final var purl = PurlFactory.of("maven", "group", "artifact" + i, "1.0");
+            purls.add(purl);
+            stub.withPackage(PurlFactory.canonical(purl), Map.of("title", "Package " + i));
+        }
+        server.setDispatcher(stub);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public void readPackages(Blackhole blackhole) {
+        final var client = new BomBaseClient(server.url("/").uri());
+        if (lookup.equals("bulk")) {
+            client.prefetch(purls);
+        }
+        for (var purl : purls) {
+            blackhole.consume(client.readPackage(purl));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the garbage produced per parsed line for packages that were already encountered.
+ * Run with the GC profiler to report the allocation rate: "gradle jmh --args='TreeParserAllocationBenchmark -prof gc'".
+ * (The "gc.alloc.rate.norm" metric is reported in bytes per line.)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(TreeParserAllocationBenchmark.LINES)
+public class TreeParserAllocationBenchmark {
+    static final int LINES = 1_000;
+
+    @Param({"gradle", "maven", "npm"})
+    public String format;
+
+    private TreeParser parser;
+    private List<String> lines;
+
+    @Setup
+    public void setup() {
+        parser = new TreeParser(new BillOfMaterials()).withFormat(new TreeFormats().plan(format)).withinSection();
+        lines = generate(format);
+        lines.forEach(parser::parse);
+    }
+
+    @Benchmark
+    public void parseKnownPackages() {
+        for (var line : lines) {
+            parser.parse(line);
+        }
+    }
+
+    private static List<String> generate(String format) {
+        final var lines = new ArrayList<String>();
+        for (int i = 0; i < LINES; i++) {
+            final var depth = i % 5;
+            switch (format) {
+                case "gradle":
+                    lines.add("|    ".repeat(depth) + "+--- com.example:artifact-" + i + ":1." + i);
+                    break;
+                case "maven":
+                    lines.add("[INFO] " + "|  ".repeat(depth) + "+- com.example:artifact-" + i + ":jar:1." + i + ":compile");
+                    break;
+                default:
+                    lines.add("│ ".repeat(depth) + "├── package-" + i + "@1." + i + ".0");
+            }
+        }
+        return lines;
+    }
+}
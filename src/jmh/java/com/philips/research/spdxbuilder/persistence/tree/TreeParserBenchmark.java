@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the native line scanners of the built-in tree formats to the generic regular expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeParserBenchmark {
+    private static final int PACKAGES = 10_000;
+
+    @Param({"gradle", "maven", "npm"})
+    public String format;
+
+    @Param({"native", "regex"})
+    public String engine;
+
+    private TreeFormat plan;
+    private List<String> lines;
+
+    @Setup
+    public void setup() {
+        final var compiled = new TreeFormats().plan(format);
+        plan = engine.equals("native") ? compiled : compiled.toBuilder().withScanner(null).build();
+        lines = generate(format);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        final var bom = new BillOfMaterials();
+        final var parser = new TreeParser(bom).withFormat(plan);
+        for (var line : lines) {
+            parser.parse(line);
+        }
+        blackhole.consume(bom);
+    }
+
+    private static List<String> generate(String format) {
+        final var lines = new ArrayList<String>();
+        switch (format) {
+            case "gradle":
+                lines.add("runtimeClasspath - Runtime classpath of source set 'main'.");
+                for (int i = 0; i < PACKAGES; i++) {
+                    final var indent = "|    ".repeat(i % 5);
+                    final var suffix = (i % 3 == 0) ? " -> 2." + i : ((i % 7 == 0) ? " (*)" : "");
+                    lines.add(indent + "+--- com.example.group" + (i % 100) + ":artifact-" + i + ":1." + i + suffix);
+                }
+                break;
+            case "maven":
+                lines.add("[INFO] --- maven-dependency-plugin:3.1.2:tree (default-cli) @ project ---");
+                lines.add("[INFO] com.example:project:jar:1.0");
+                for (int i = 0; i < PACKAGES; i++) {
+                    final var indent = "|  ".repeat(i % 5);
+                    lines.add("[INFO] " + indent + "+- com.example.group" + (i % 100) + ":artifact-" + i + ":jar:1." + i + ":compile");
+                }
+                lines.add("[INFO] ------------------------------------------------------------------------");
+                break;
+            default:
+                lines.add("project@1.0.0 /path/to/project");
+                for (int i = 0; i < PACKAGES; i++) {
+                    final var indent = "│ ".repeat(i % 5);
+                    final var scope = (i % 4 == 0) ? "@scope" + (i % 10) + "/" : "";
+                    lines.add(indent + "├── " + scope + "package-" + i + "@1." + i + ".0" + ((i % 6 == 0) ? " deduped" : ""));
+                }
+        }
+        return lines;
+    }
+}
@@ -6,6 +6,9 @@
 package com.philips.research.spdxbuilder.controller;
 
 import com.philips.research.spdxbuilder.core.ConversionService;
+import com.philips.research.spdxbuilder.core.KnowledgeBase;
+import com.philips.research.spdxbuilder.core.PollingScheduler;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
 import com.philips.research.spdxbuilder.persistence.tree.TreeWriter;
 import picocli.CommandLine.Option;
 import pl.tlinkowski.annotation.basic.NullOr;
@@ -14,11 +17,15 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 
 /**
  * Shared generic part of CLI commands.
  */
 public abstract class AbstractCommand implements Runnable {
+    private static final Duration POLL_INITIAL_DELAY = Duration.ofSeconds(1);
+    private static final Duration POLL_MAX_DELAY = Duration.ofSeconds(30);
+
     @Option(names = {"--version", "-V"}, description = "Show version info and exit")
     boolean showVersion;
 
@@ -41,6 +48,61 @@ public abstract class AbstractCommand implements Runnable {
     @Option(names = {"--force"}, description = "Create output if metadata is incomplete")
     boolean forceContinue;
 
+    @Option(names = {"--threads"}, description = "Maximum number of packages enhanced concurrently (default: ${DEFAULT-VALUE})",
+            paramLabel = "COUNT", defaultValue = "8")
+    int threads;
+
+    @Option(names = {"--stream"}, description = "Enhance and write packages while reading, using a queue of limited size",
+            paramLabel = "QUEUE_SIZE", arity = "0..1", fallbackValue = "256")
+    @NullOr Integer streamQueueSize;
+
+    @Option(names = {"--wait"}, description = "Maximum time in seconds to poll for metadata that is still being gathered (default: ${DEFAULT-VALUE})",
+            paramLabel = "SECONDS", defaultValue = "0")
+    int waitSeconds;
+
+    @Option(names = {"--http-timeout"}, description = "Maximum time in seconds to wait for a server response (default: ${DEFAULT-VALUE})",
+            paramLabel = "SECONDS", defaultValue = "60")
+    int httpTimeout;
+
+    @Option(names = {"--http1"}, description = "Use HTTP/1.1 only instead of negotiating HTTP/2 with servers")
+    boolean http1;
+
+    private @NullOr HttpTransport transport;
+
+    /**
+     * @return maximum number of concurrent requests to a single server
+     */
+    protected int maxRequestsPerHost() {
+        return threads;
+    }
+
+    /**
+     * @return HTTP transport shared by all clients of this command
+     */
+    protected HttpTransport transport() {
+        if (transport == null) {
+            final int connections = Math.max(1, maxRequestsPerHost());
+            transport = HttpTransport.builder()
+                    .maxRequestsPerHost(connections)
+                    .maxIdleConnections(connections)
+                    .preferHttp2(!http1)
+                    .readTimeout(Duration.ofSeconds(httpTimeout))
+                    .build();
+        }
+        return transport;
+    }
+
+    /**
+     * Applies the enhancement options to a knowledge base.
+     */
+    protected KnowledgeBase configure(KnowledgeBase knowledgeBase) {
+        knowledgeBase.setConcurrency(threads);
+        if (waitSeconds > 0) {
+            knowledgeBase.setPolling(new PollingScheduler(POLL_INITIAL_DELAY, POLL_MAX_DELAY, Duration.ofSeconds(waitSeconds), threads));
+        }
+        return knowledgeBase;
+    }
+
     /**
      * @return instantiated service for the provided parameters and options
      */
@@ -65,15 +127,22 @@ public abstract class AbstractCommand implements Runnable {
             spdxStream = new FileOutputStream(spdxFile);
 
             final var service = createService();
-            service.read();
-            if (printTree) {
-                service.apply(new TreeWriter());
+            if (streamQueueSize != null) {
+                service.stream(streamQueueSize, forceContinue);
+                if (printTree) {
+                    service.apply(new TreeWriter());
+                }
+            } else {
+                service.read();
+                if (printTree) {
+                    service.apply(new TreeWriter());
+                }
+                service.convert(forceContinue);
             }
-            service.convert(forceContinue);
 
             if (uploadUrl != null) {
                 System.out.println("Uploading '" + spdxFile.getName() + "' to " + uploadUrl);
-                new UploadClient(uploadUrl).upload(spdxFile);
+                new UploadClient(uploadUrl, transport()).upload(spdxFile);
             }
 
         } catch (Exception e) {
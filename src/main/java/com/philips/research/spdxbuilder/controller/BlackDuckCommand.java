@@ -39,9 +39,23 @@ public class BlackDuckCommand extends AbstractCommand {
             defaultValue = "${env:BLACKDUCK_API_TOKEN}", required = true)
     String token;
 
+    @Option(names = {"--parallel"}, paramLabel = "COUNT", description = "Maximum number of concurrent requests to the server (default: ${DEFAULT-VALUE})",
+            defaultValue = "4")
+    int parallel;
+
+    @Option(names = {"--rate-limit"}, paramLabel = "REQUESTS", description = "Maximum number of requests per second to the server, or 0 for unlimited (default: ${DEFAULT-VALUE})",
+            defaultValue = "10")
+    double rateLimit;
+
+    @Override
+    protected int maxRequestsPerHost() {
+        return Math.max(threads, parallel);
+    }
+
     @Override
     protected ConversionService createService() {
-        final BomReader reader = new BlackDuckReader(url, token, project, version, insecure);
+        final BomReader reader = new BlackDuckReader(url, token, project, version, insecure, transport())
+                .setConcurrency(parallel, rateLimit);
         final BomProcessor writer = new SpdxWriter(spdxStream);
 
         return new ConversionInteractor(reader, writer);
@@ -43,7 +43,7 @@ public class OrtCommand extends AbstractCommand {
         final OrtReader reader = new OrtReader(ortFile);
         final BomProcessor writer = new SpdxWriter(spdxStream);
         ConversionService service = licenseScanner != null
-                ? new ConversionInteractor(reader, writer).setKnowledgeBase(new LicenseKnowledgeBase(licenseScanner))
+                ? new ConversionInteractor(reader, writer).setKnowledgeBase(configure(new LicenseKnowledgeBase(licenseScanner, transport())))
                 : new ConversionInteractor(reader, writer);
 
         final var config = readConfiguration();
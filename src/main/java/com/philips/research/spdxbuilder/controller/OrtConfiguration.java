@@ -13,6 +13,7 @@ import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.io.IOException;
@@ -111,7 +112,7 @@ class OrtConfiguration {
 
         PackageURL getPurl() {
             try {
-                return new PackageURL(purl.toASCIIString());
+                return PurlFactory.parse(purl.toASCIIString());
             } catch (MalformedPackageURLException e) {
                 throw new IllegalArgumentException("Not a valid package URL: " + purl);
             }
@@ -11,6 +11,7 @@ import com.philips.research.spdxbuilder.core.BusinessException;
 import com.philips.research.spdxbuilder.core.ConversionService;
 import com.philips.research.spdxbuilder.core.domain.ConversionInteractor;
 import com.philips.research.spdxbuilder.persistence.bom_base.BomBaseKnowledgeBase;
+import com.philips.research.spdxbuilder.persistence.bom_base.PackageCache;
 import com.philips.research.spdxbuilder.persistence.spdx.SpdxWriter;
 import com.philips.research.spdxbuilder.persistence.tree.TreeFormats;
 import com.philips.research.spdxbuilder.persistence.tree.TreeReader;
@@ -22,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 
 /**
  * CLI command to export the SBOM from a textual tree representation to an SPDX file.
@@ -31,6 +33,9 @@ public class TreeCommand extends AbstractCommand {
     @CommandLine.Option(names = {"--format", "-f"}, description = "Format of the tree to parse")
     @NullOr String format;
 
+    @CommandLine.Option(names = {"--input", "-i"}, description = "Tree file to read instead of the standard input", paramLabel = "FILE")
+    @NullOr File inputFile;
+
     @CommandLine.Option(names = {"--custom"}, description = "Custom formats extension file")
     @NullOr File formatExtension;
 
@@ -41,6 +46,21 @@ public class TreeCommand extends AbstractCommand {
     @CommandLine.Option(names = {"--kb", "--bombase"}, description = "Add package metadata from BOM-base knowledge base", paramLabel = "SERVER_URL")
     @NullOr URI bomBase;
 
+    @CommandLine.Option(names = {"--cache"}, description = "Directory to cache BOM-base metadata across runs", paramLabel = "DIR")
+    @NullOr File cacheDirectory;
+
+    @CommandLine.Option(names = {"--cache-ttl"}, description = "Hours before cached BOM-base metadata expires (default: ${DEFAULT-VALUE})",
+            paramLabel = "HOURS", defaultValue = "24")
+    int cacheHours;
+
+    @CommandLine.Option(names = {"--cache-negative-ttl"}, description = "Minutes before packages unknown to BOM-base are checked again (default: ${DEFAULT-VALUE})",
+            paramLabel = "MINUTES", defaultValue = "60")
+    int cacheNegativeMinutes;
+
+    @CommandLine.Option(names = {"--parallel"}, description = "Number of threads parsing independent root packages of the tree (default: ${DEFAULT-VALUE})",
+            paramLabel = "COUNT", defaultValue = "1")
+    int parallel;
+
     @CommandLine.Option(names = {"--release"}, description = "Root packages expose their package URL", defaultValue = "false")
     boolean isRelease;
 
@@ -57,12 +77,15 @@ public class TreeCommand extends AbstractCommand {
     @Override
     protected ConversionService createService() {
         final var config = readConfiguration();
-        final BomReader reader = new TreeReader(System.in, format, formatExtension, config.getInternalGlobs())
-                .setRelease(isRelease);
+        final BomReader reader = ((inputFile != null)
+                ? new TreeReader(inputFile, format, formatExtension, config.getInternalGlobs())
+                : new TreeReader(System.in, format, formatExtension, config.getInternalGlobs()))
+                .setRelease(isRelease)
+                .setParallel(parallel);
         final BomProcessor writer = new SpdxWriter(spdxStream);
 
         final var service = bomBase != null
-                ? new ConversionInteractor(reader, writer).setKnowledgeBase(new BomBaseKnowledgeBase(bomBase))
+                ? new ConversionInteractor(reader, writer).setKnowledgeBase(configure(createKnowledgeBase(bomBase)))
                 : new ConversionInteractor(reader, writer);
 
         config.apply(service);
@@ -70,6 +93,13 @@ public class TreeCommand extends AbstractCommand {
         return service;
     }
 
+    private BomBaseKnowledgeBase createKnowledgeBase(URI server) {
+        final var cache = (cacheDirectory != null)
+                ? new PackageCache(cacheDirectory.toPath(), Duration.ofHours(cacheHours), Duration.ofMinutes(cacheNegativeMinutes))
+                : null;
+        return new BomBaseKnowledgeBase(server, cache, transport());
+    }
+
     private TreeConfiguration readConfiguration() {
         try (final var stream = new FileInputStream(configFile)) {
             return TreeConfiguration.parse(stream);
@@ -6,10 +6,10 @@
 package com.philips.research.spdxbuilder.controller;
 
 import com.philips.research.spdxbuilder.core.BusinessException;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
 import com.philips.research.spdxbuilder.persistence.license_scanner.LicenseScannerException;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import retrofit2.Call;
 import retrofit2.Retrofit;
@@ -31,21 +31,25 @@ interface UploadApi {
 
 public class UploadClient {
     private static final Duration MAX_UPLOAD_DURATION = Duration.ofMinutes(5);
-    private static final OkHttpClient CLIENT = new OkHttpClient.Builder()
-            .writeTimeout(MAX_UPLOAD_DURATION)
-            .readTimeout(MAX_UPLOAD_DURATION)
-            .build();
     private final UploadApi rest;
     private final URI uploadUrl;
 
     UploadClient(URI uploadUrl) {
+        this(uploadUrl, HttpTransport.getDefault());
+    }
+
+    UploadClient(URI uploadUrl, HttpTransport transport) {
         this.uploadUrl = uploadUrl;
+        final var client = transport.newClient()
+                .writeTimeout(MAX_UPLOAD_DURATION)
+                .readTimeout(MAX_UPLOAD_DURATION)
+                .build();
         var uploadPath = uploadUrl.toASCIIString();
         if (!uploadPath.endsWith("/")) {
             uploadPath += '/';
         }
         final var retrofit = new Retrofit.Builder()
-                .client(CLIENT)
+                .client(client)
                 .baseUrl(uploadPath)
                 .build();
         rest = retrofit.create(UploadApi.class);
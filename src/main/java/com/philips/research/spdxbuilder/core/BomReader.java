@@ -12,4 +12,14 @@ import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
  */
 public interface BomReader {
     void read(BillOfMaterials bom);
+
+    /**
+     * Indicates whether packages can be processed while reading. This requires that the reader no longer modifies
+     * a package (including its internal status) after adding it to the bill-of-materials.
+     *
+     * @return true if added packages are final
+     */
+    default boolean isStreamable() {
+        return true;
+    }
 }
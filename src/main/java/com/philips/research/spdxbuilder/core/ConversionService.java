@@ -77,4 +77,16 @@ public interface ConversionService {
      * @param continueWhenIncomplete writes the SBOM even if the conversion is incomplete
      */
     void convert(boolean continueWhenIncomplete);
+
+    /**
+     * Reads the bill-of-materials, while extending packages with metadata from the knowledge base (if configured)
+     * and writing them as a document as soon as they are read.
+     * Packages are enhanced concurrently (up to the concurrency of the knowledge base), but written in the order
+     * they were read. Falls back to sequential conversion if the writer cannot stream, if the reader can still
+     * modify packages after they were added, or if the knowledge base polls for missing metadata.
+     *
+     * @param queueSize              maximum number of packages waiting to be enhanced and written
+     * @param continueWhenIncomplete fails only after the SBOM is written if the conversion is incomplete
+     */
+    void stream(int queueSize, boolean continueWhenIncomplete);
 }
@@ -7,35 +7,175 @@ package com.philips.research.spdxbuilder.core;
 
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import pl.tlinkowski.annotation.basic.NullOr;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 public abstract class KnowledgeBase {
+    private int concurrency = 1;
+    private @NullOr PollingScheduler polling;
+
+    /**
+     * Limits the number of packages that are enhanced simultaneously.
+     *
+     * @param concurrency maximum number of concurrent enhancements
+     */
+    public KnowledgeBase setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @return maximum number of concurrent enhancements
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Repeats failed enhancements while the knowledge base is still gathering the metadata.
+     *
+     * @param polling schedules the repeated enhancements of all failed packages
+     */
+    public KnowledgeBase setPolling(@NullOr PollingScheduler polling) {
+        this.polling = polling;
+        return this;
+    }
+
+    /**
+     * @return true if failed enhancements are repeated, which requires enhancing the bill-of-materials as a whole
+     */
+    public boolean isPolling() {
+        return polling != null;
+    }
+
     /**
      * Enhances all packages of a bill-of-materials.
+     * Every package is enhanced by a single task, and all enhancements have completed when this method returns.
+     * If polling is configured, failed enhancements are repeated until they succeed or polling times out.
      *
      * @param bom bill-of-materials
      * @return true if no packages failed
      */
     public boolean enhance(BillOfMaterials bom) {
-        final var success = new AtomicBoolean(true);
-        bom.getPackages().stream()
-                .filter(pkg -> !pkg.isInternal())
-                .forEach(pkg -> {
-                    final var found = enhance(pkg);
-                    if (!found) {
-                        System.err.println("WARNING: No metadata for " + pkg);
-                        success.set(false);
-                    }
-                });
-        return success.get();
+        final var packages = distinct(bom.getPackages());
+        final var threads = Math.min(concurrency, packages.size());
+        var failed = new ArrayList<Package>();
+        if (threads <= 1) {
+            for (var pkg : packages) {
+                if (!tryEnhance(pkg)) {
+                    failed.add(pkg);
+                }
+            }
+        } else {
+            final var executor = Executors.newFixedThreadPool(threads);
+            try {
+                failed = enhanceConcurrently(packages, new ExecutorCompletionService<>(executor));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        final var remaining = (polling != null) ? polling.poll(failed, this::tryRetry) : failed;
+        remaining.forEach(this::reportMissing);
+        return remaining.isEmpty();
+    }
+
+    private List<Package> distinct(List<Package> packages) {
+        final var unique = Collections.newSetFromMap(new IdentityHashMap<Package, Boolean>());
+        return packages.stream()
+                .filter(unique::add)
+                .collect(Collectors.toList());
+    }
+
+    private ArrayList<Package> enhanceConcurrently(List<Package> packages, CompletionService<Boolean> service) {
+        final var futures = new ArrayList<Future<Boolean>>();
+        final var succeeded = new boolean[packages.size()];
+        for (var i = 0; i < packages.size(); i++) {
+            final var index = i;
+            futures.add(service.submit(() -> succeeded[index] = tryEnhance(packages.get(index))));
+        }
+        try {
+            for (var i = 0; i < futures.size(); i++) {
+                service.take().get();
+            }
+            final var failed = new ArrayList<Package>();
+            for (var i = 0; i < packages.size(); i++) {
+                if (!succeeded[i]) {
+                    failed.add(packages.get(i));
+                }
+            }
+            return failed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Enhancement of metadata was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BusinessException("Enhancement of metadata failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Enhances a package unless it is internal.
+     *
+     * @param pkg the package to enhance
+     * @return false if enhancement of an external package failed
+     */
+    public boolean enhanceExternal(Package pkg) {
+        final var found = tryEnhance(pkg);
+        if (!found) {
+            reportMissing(pkg);
+        }
+        return found;
+    }
+
+    private boolean tryEnhance(Package pkg) {
+        return pkg.isInternal() || enhance(pkg);
+    }
+
+    private boolean tryRetry(Package pkg) {
+        return pkg.isInternal() || retry(pkg);
+    }
+
+    private void reportMissing(Package pkg) {
+        System.err.println("WARNING: No metadata for " + pkg);
     }
 
     /**
      * Enhances a single package.
+     * Implementations must support concurrent invocation for different packages.
      *
      * @param pkg the package to enhance
      * @return true if for success, or false if enhancement failed
      */
     public abstract boolean enhance(Package pkg);
+
+    /**
+     * Completes any background work (like feedback to the knowledge base) after all packages are enhanced.
+     */
+    public void finish() {
+    }
+
+    /**
+     * Repeats the enhancement of a package while polling.
+     * Implementations should bypass any (negatively) cached lookup results of the previous attempt.
+     *
+     * @param pkg the package to enhance
+     * @return true if for success, or false if enhancement failed
+     */
+    protected boolean retry(Package pkg) {
+        return enhance(pkg);
+    }
 }
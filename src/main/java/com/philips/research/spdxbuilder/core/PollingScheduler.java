@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * Repeats attempts that did not succeed yet, backing off exponentially per item until a global deadline.
+ * All items wait in parallel on a shared scheduler, so the total waiting time is bounded by the deadline
+ * irrespective of the number of items.
+ */
+public final class PollingScheduler {
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final Duration timeout;
+    private final int threads;
+
+    /**
+     * @param initialDelay delay before the first repeated attempt
+     * @param maxDelay     maximum delay between attempts for an item
+     * @param timeout      maximum total duration of polling
+     * @param threads      maximum number of concurrent attempts
+     */
+    public PollingScheduler(Duration initialDelay, Duration maxDelay, Duration timeout, int threads) {
+        if (initialDelay.isNegative() || initialDelay.isZero() || maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("Polling delays must be positive and increasing");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Polling requires at least 1 thread");
+        }
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.timeout = timeout;
+        this.threads = threads;
+    }
+
+    /**
+     * Repeats the attempt for every item until it succeeds or the deadline passes.
+     *
+     * @param items   items for which a previous attempt did not succeed
+     * @param attempt returns true if the item succeeded
+     * @return the items that did not succeed before the deadline
+     */
+    public <T> List<T> poll(Collection<T> items, Predicate<T> attempt) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        final var deadline = System.nanoTime() + timeout.toNanos();
+        final var executor = new ScheduledThreadPoolExecutor(Math.min(threads, items.size()));
+        try {
+            final var polls = new ArrayList<Poll<T>>();
+            items.forEach(item -> polls.add(new Poll<>(item, attempt, executor, deadline)));
+            polls.forEach(poll -> poll.schedule(initialDelay.toNanos()));
+            awaitAll(polls);
+            final var remaining = new ArrayList<T>();
+            for (var poll : polls) {
+                if (!poll.result.get()) {
+                    remaining.add(poll.item);
+                }
+            }
+            return remaining;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Polling was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BusinessException("Polling failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until all items completed, or any of them failed.
+     */
+    private <T> void awaitAll(List<Poll<T>> polls) throws InterruptedException, ExecutionException {
+        final var failure = new CompletableFuture<Void>();
+        final var results = polls.stream()
+                .map(poll -> poll.result.whenComplete((result, error) -> {
+                    if (error != null) {
+                        failure.completeExceptionally(error);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.anyOf(CompletableFuture.allOf(results), failure).get();
+    }
+
+    /**
+     * Polling state of a single item.
+     */
+    private final class Poll<T> {
+        final T item;
+        final Predicate<T> attempt;
+        final ScheduledExecutorService executor;
+        final long deadline;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Poll(T item, Predicate<T> attempt, ScheduledExecutorService executor, long deadline) {
+            this.item = item;
+            this.attempt = attempt;
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        void schedule(long delay) {
+            if (System.nanoTime() + delay > deadline) {
+                result.complete(false);
+                return;
+            }
+            executor.schedule(() -> run(delay), delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void run(long delay) {
+            try {
+                if (attempt.test(item)) {
+                    result.complete(true);
+                } else {
+                    schedule(Math.min(2 * delay, maxDelay.toNanos()));
+                }
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
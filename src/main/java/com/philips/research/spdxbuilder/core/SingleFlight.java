@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups for the same key into a single invocation of the loader.
+ * Callers that arrive while a lookup for their key is in flight wait for and share its result (or failure).
+ * Results are not retained after the lookup completes, so caching remains the responsibility of the loader.
+ *
+ * @param <K> lookup key
+ * @param <V> lookup result
+ */
+public final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key    identification of the lookup
+     * @param loader performs the lookup if none is in flight for the key
+     * @return the result of the (shared) lookup
+     */
+    public V get(K key, Supplier<V> loader) {
+        final var future = new CompletableFuture<V>();
+        final @NullOr CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            final var value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return number of lookups currently in flight
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Lookup was interrupted", e);
+        } catch (ExecutionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new BusinessException("Lookup failed", cause);
+        }
+    }
+}
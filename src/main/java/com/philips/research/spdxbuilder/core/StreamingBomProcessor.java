@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.Package;
+
+/**
+ * Interface for persisting a bill-of-materials package by package while it is being read.
+ */
+public interface StreamingBomProcessor extends BomProcessor {
+    /**
+     * Processes a single finished package.
+     *
+     * @param bom the (incomplete) bill-of-materials holding the package
+     * @param pkg the package
+     */
+    void processPackage(BillOfMaterials bom, Package pkg);
+
+    /**
+     * Completes processing after all packages have been processed.
+     *
+     * @param bom the complete bill-of-materials
+     */
+    void finish(BillOfMaterials bom);
+}
@@ -17,6 +17,9 @@ import java.util.*;
 public class BillOfMaterials {
     private final List<Package> packages = new ArrayList<>();
     private final Set<Relation> relations = new HashSet<>();
+    private final Map<Package, Set<Relation>> outgoing = new HashMap<>();
+    private final Map<Package, Set<Relation>> incoming = new HashMap<>();
+    private final List<BomListener> listeners = new ArrayList<>();
     private @NullOr String title;
     private @NullOr String comment;
     private @NullOr Party organization;
@@ -39,16 +42,45 @@ public class BillOfMaterials {
 
     public BillOfMaterials addPackage(Package pkg) {
         packages.add(pkg);
+        listeners.forEach(listener -> listener.packageAdded(pkg));
+        return this;
+    }
+
+    public BillOfMaterials addListener(BomListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public BillOfMaterials removeListener(BomListener listener) {
+        listeners.remove(listener);
         return this;
     }
 
     public BillOfMaterials addRelation(Package from, Package to, Relation.Type type) {
-        relations.add(new Relation(from, to, type));
+        final var relation = new Relation(from, to, type);
+        if (relations.add(relation)) {
+            outgoing.computeIfAbsent(from, pkg -> new LinkedHashSet<>()).add(relation);
+            incoming.computeIfAbsent(to, pkg -> new LinkedHashSet<>()).add(relation);
+        }
         return this;
     }
 
     public Collection<Relation> getRelations() {
-        return relations;
+        return Collections.unmodifiableCollection(relations);
+    }
+
+    /**
+     * @return all relations originating from the indicated package
+     */
+    public Collection<Relation> getRelationsFrom(Package pkg) {
+        return Collections.unmodifiableCollection(outgoing.getOrDefault(pkg, Set.of()));
+    }
+
+    /**
+     * @return all relations ending in the indicated package
+     */
+    public Collection<Relation> getRelationsTo(Package pkg) {
+        return Collections.unmodifiableCollection(incoming.getOrDefault(pkg, Set.of()));
     }
 
     public String getTitle() {
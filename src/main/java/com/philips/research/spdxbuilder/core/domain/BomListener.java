@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core.domain;
+
+/**
+ * Observer of packages that are added to a bill-of-materials.
+ */
+public interface BomListener {
+    /**
+     * Notifies a (fully populated) package was added to the bill-of-materials.
+     *
+     * @param pkg the added package
+     */
+    void packageAdded(Package pkg);
+}
@@ -10,13 +10,17 @@ import com.philips.research.spdxbuilder.core.*;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.Objects;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
 
 /**
  * Implementation of conversion use cases.
  */
 public class ConversionInteractor implements ConversionService, AutoCloseable {
+    private static final Package END_OF_STREAM = new Package(null, "", "");
+
     private final BomReader reader;
     private final BomProcessor writer;
     private final BillOfMaterials bom;
@@ -83,14 +87,118 @@ public class ConversionInteractor implements ConversionService, AutoCloseable {
 
     @Override
     public void convert(boolean continueIfIncomplete) {
-        if (knowledgeBase != null) {
-            final var success = knowledgeBase.enhance(bom);
+        try {
+            if (knowledgeBase != null) {
+                final var success = knowledgeBase.enhance(bom);
+                if (!success && !continueIfIncomplete) {
+                    throw new BusinessException("Enhancement of metadata failed");
+                }
+            }
+            //TODO Curate before writing
+            writer.process(bom);
+        } finally {
+            finishKnowledgeBase();
+        }
+    }
+
+    @Override
+    public void stream(int queueSize, boolean continueIfIncomplete) {
+        final boolean polling = (knowledgeBase != null) && knowledgeBase.isPolling();
+        if (!(writer instanceof StreamingBomProcessor) || !reader.isStreamable() || polling) {
+            if (!reader.isStreamable()) {
+                System.out.println("Packages of this input are only final after reading; converting without streaming");
+            } else if (polling) {
+                System.err.println("WARNING: Polling for metadata requires all packages; converting without streaming");
+            }
+            read();
+            convert(continueIfIncomplete);
+            return;
+        }
+
+        final var processor = (StreamingBomProcessor) writer;
+        final var queue = new ArrayBlockingQueue<Package>(queueSize);
+        final BomListener listener = pkg -> enqueue(queue, pkg);
+        final var executor = Executors.newSingleThreadExecutor();
+        final int concurrency = (knowledgeBase != null) ? knowledgeBase.getConcurrency() : 1;
+        final var enhancers = Executors.newFixedThreadPool(concurrency);
+        bom.addListener(listener);
+        try {
+            final var reading = executor.submit(() -> {
+                try {
+                    reader.read(bom);
+                } finally {
+                    enqueue(queue, END_OF_STREAM);
+                }
+            });
+
+            // Packages are enhanced concurrently, but written in the order they were read
+            final var pending = new ArrayDeque<Enhancement>();
+            var success = true;
+            var pkg = queue.take();
+            while (pkg != END_OF_STREAM) {
+                pending.add(new Enhancement(pkg, enhancers.submit(enhanceTask(pkg))));
+                while (!pending.isEmpty() && (pending.size() >= concurrency || pending.peek().result.isDone())) {
+                    success &= write(processor, pending.remove());
+                }
+                pkg = queue.take();
+            }
+            while (!pending.isEmpty()) {
+                success &= write(processor, pending.remove());
+            }
+            reading.get();
+            processor.finish(bom);
+
             if (!success && !continueIfIncomplete) {
                 throw new BusinessException("Enhancement of metadata failed");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Conversion was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BusinessException("Conversion failed", e.getCause());
+        } finally {
+            bom.removeListener(listener);
+            executor.shutdownNow();
+            enhancers.shutdownNow();
+            finishKnowledgeBase();
+        }
+    }
+
+    private Callable<Boolean> enhanceTask(Package pkg) {
+        final @NullOr KnowledgeBase kb = knowledgeBase;
+        return () -> (kb == null) || kb.enhanceExternal(pkg);
+    }
+
+    private boolean write(StreamingBomProcessor processor, Enhancement enhancement)
+            throws InterruptedException, ExecutionException {
+        final boolean success = enhancement.result.get();
+        processor.processPackage(bom, enhancement.pkg);
+        return success;
+    }
+
+    /**
+     * Completes the knowledge base without masking the outcome of the conversion itself.
+     */
+    private void finishKnowledgeBase() {
+        if (knowledgeBase != null) {
+            try {
+                knowledgeBase.finish();
+            } catch (RuntimeException e) {
+                System.err.println("WARNING: Failed to complete knowledge base feedback: " + e.getMessage());
+            }
+        }
+    }
+
+    private void enqueue(BlockingQueue<Package> queue, Package pkg) {
+        try {
+            queue.put(pkg);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Reading was interrupted", e);
         }
-        //TODO Curate before writing
-        writer.process(bom);
     }
 
     private void curate(PackageURL purl, Consumer<Package> curate) {
@@ -100,6 +208,16 @@ public class ConversionInteractor implements ConversionService, AutoCloseable {
                 .forEach(curate);
     }
 
+    private static final class Enhancement {
+        final Package pkg;
+        final Future<Boolean> result;
+
+        Enhancement(Package pkg, Future<Boolean> result) {
+            this.pkg = pkg;
+            this.result = result;
+        }
+    }
+
     @Override
     public void close() throws Exception {
         if (this.writer != null) {
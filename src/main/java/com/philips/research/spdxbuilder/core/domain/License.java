@@ -8,18 +8,46 @@ package com.philips.research.spdxbuilder.core.domain;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Immutable license expression.
+ * Expressions are interned, and compute their (case-insensitive) normalized form only once.
+ */
 public abstract class License {
+    private static final Map<String, License> INTERNED = new ConcurrentHashMap<>();
+
     @SuppressWarnings("StaticInitializerReferencesSubClass")
     public static final License NONE = new NoLicense();
 
+    private final String text;
+    private final String normalized;
+    private final int hash;
+
+    private License(String text) {
+        this.text = text;
+        this.normalized = text.toLowerCase(Locale.ROOT);
+        this.hash = normalized.hashCode();
+    }
+
     public static License of(String identifier) {
         if (identifier.isBlank()) {
             return NONE;
         }
-        return new SingleLicense(identifier.trim());
+        return intern(new SingleLicense(identifier.trim(), null));
+    }
+
+    /**
+     * @return the shared instance for the (exact) expression
+     */
+    private static License intern(License license) {
+        final var key = license.getClass().getSimpleName() + ':' + license.text;
+        final @NullOr License existing = INTERNED.putIfAbsent(key, license);
+        return (existing != null) ? existing : license;
     }
 
     public License with(String exception) {
@@ -30,14 +58,14 @@ public abstract class License {
         if (license instanceof NoLicense || this.equals(license)) {
             return this;
         }
-        return new AndLicense(this).and(license);
+        return intern(new AndLicense(Set.of(this)).merge(license));
     }
 
     public License or(License license) {
         if (license instanceof NoLicense || this.equals(license)) {
             return this;
         }
-        return new OrLicense(this).or(license);
+        return intern(new OrLicense(Set.of(this)).merge(license));
     }
 
     public boolean isDefined() {
@@ -46,24 +74,33 @@ public abstract class License {
 
     @Override
     public final int hashCode() {
-        return toString().toLowerCase().hashCode();
+        return hash;
     }
 
     @Override
-    public final boolean equals(Object obj) {
+    public final boolean equals(@NullOr Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (!(obj instanceof License)) {
             return false;
         }
-        return this.getClass() == obj.getClass()
-                && toString().equalsIgnoreCase(obj.toString());
+        final var other = (License) obj;
+        return hash == other.hash
+                && this.getClass() == obj.getClass()
+                && normalized.equals(other.normalized);
     }
 
     @Override
     public String toString() {
-        return "License{}";
+        return text;
     }
 
     private static class NoLicense extends License {
+        NoLicense() {
+            super("");
+        }
+
         @Override
         public boolean isDefined() {
             return false;
@@ -78,20 +115,16 @@ public abstract class License {
         public License or(License license) {
             return license;
         }
-
-        @Override
-        public String toString() {
-            return "";
-        }
     }
 
     private static class SingleLicense extends License {
         private final String identifier;
+        private final @NullOr String exception;
 
-        private @NullOr String exception = null;
-
-        SingleLicense(String identifier) {
+        SingleLicense(String identifier, @NullOr String exception) {
+            super((exception != null) ? identifier + " WITH " + exception : identifier);
             this.identifier = identifier;
+            this.exception = exception;
         }
 
         @Override
@@ -99,73 +132,78 @@ public abstract class License {
             if (this.exception != null) {
                 throw new LicenseException("Adding a second exception is not allowed");
             }
-            final var license = new SingleLicense(identifier);
-            license.exception = exception.trim();
-            return license;
+            return intern(new SingleLicense(identifier, exception.trim()));
         }
 
         @Override
         public boolean isDefined() {
             return !identifier.equals("NOASSERTION");
         }
-
-        @Override
-        public String toString() {
-            return (exception != null)
-                    ? String.format("%s WITH %s", identifier, exception)
-                    : identifier;
-        }
     }
 
-    private static class ComboLicense extends License {
-        private final String operation;
-        private final Set<License> licenses = new HashSet<>();
+    private abstract static class ComboLicense extends License {
+        final Set<License> licenses;
 
-        public ComboLicense(String operation, License license) {
-            this.operation = String.format(" %s ", operation);
-            licenses.add(license);
+        ComboLicense(String operation, Set<License> licenses) {
+            super(format(operation, licenses));
+            this.licenses = licenses;
         }
 
-        License merge(License license) {
-            if (license.getClass() == this.getClass()) {
-                licenses.addAll(((ComboLicense) license).licenses);
-            } else if (!(license instanceof NoLicense)) {
-                licenses.add(license);
-            }
-            return this;
-        }
-
-        @Override
-        public String toString() {
+        private static String format(String operation, Set<License> licenses) {
             return licenses.stream()
                     .filter(License::isDefined)
                     .map(license -> (license instanceof ComboLicense)
-                            ? String.format("(%s)", license)
+                            ? "(" + license + ")"
                             : license.toString())
                     .sorted(String::compareToIgnoreCase)
-                    .collect(Collectors.joining(operation));
+                    .collect(Collectors.joining(" " + operation + " "));
         }
+
+        /**
+         * @return a new combination that includes the license
+         */
+        License merge(License license) {
+            final var merged = new HashSet<>(licenses);
+            if (license.getClass() == this.getClass()) {
+                merged.addAll(((ComboLicense) license).licenses);
+            } else if (!(license instanceof NoLicense)) {
+                merged.add(license);
+            }
+            return (merged.size() == licenses.size()) ? this : create(Set.copyOf(merged));
+        }
+
+        abstract ComboLicense create(Set<License> licenses);
     }
 
     private static class OrLicense extends ComboLicense {
-        public OrLicense(License license) {
-            super("OR", license);
+        OrLicense(Set<License> licenses) {
+            super("OR", licenses);
         }
 
         @Override
         public License or(License license) {
-            return merge(license);
+            return intern(merge(license));
+        }
+
+        @Override
+        ComboLicense create(Set<License> licenses) {
+            return new OrLicense(licenses);
         }
     }
 
     private static class AndLicense extends ComboLicense {
-        public AndLicense(License license) {
-            super("AND", license);
+        AndLicense(Set<License> licenses) {
+            super("AND", licenses);
         }
 
         @Override
         public License and(License license) {
-            return merge(license);
+            return intern(merge(license));
+        }
+
+        @Override
+        ComboLicense create(Set<License> licenses) {
+            return new AndLicense(licenses);
         }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core.domain;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe, size-bounded cache of parsed license expressions.
+ * Entries are tagged with the generation of the license dictionary, because custom license references become
+ * invalid when the dictionary is cleared.
+ */
+public final class LicenseCache {
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    LicenseCache(int capacity) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the cached license for the text, or the license created by the parser
+     */
+    License get(String text, int generation, Supplier<License> parser) {
+        final @NullOr Entry cached;
+        synchronized (entries) {
+            cached = entries.get(text);
+        }
+        if (cached != null && cached.generation == generation) {
+            hits.incrementAndGet();
+            return cached.license;
+        }
+
+        misses.incrementAndGet();
+        final var license = parser.get();
+        synchronized (entries) {
+            entries.put(text, new Entry(license, generation));
+        }
+        return license;
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    Statistics getStatistics() {
+        synchronized (entries) {
+            return new Statistics(hits.get(), misses.get(), entries.size());
+        }
+    }
+
+    private static final class Entry {
+        final License license;
+        final int generation;
+
+        Entry(License license, int generation) {
+            this.license = license;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Snapshot of the cache usage.
+     */
+    public static final class Statistics {
+        private final long hits;
+        private final long misses;
+        private final int size;
+
+        Statistics(long hits, long misses, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses, %d cached", hits, misses, size);
+        }
+    }
+}
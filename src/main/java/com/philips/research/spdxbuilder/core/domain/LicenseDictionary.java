@@ -13,13 +13,16 @@ import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.net.URL;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class LicenseDictionary {
     private static final ObjectMapper MAPPER = new ObjectMapper()
@@ -33,8 +36,6 @@ public class LicenseDictionary {
     private static final Map<String, Function<LicenseDictionary, License>> UPGRADE_MAP = new HashMap<>();
     private static final Pattern LICENSE_REF = Pattern.compile("LicenseRef-\\w+");
 
-    private static @NullOr LicenseDictionary instance;
-
     static {
         UPGRADE_MAP.put("apl-1.0", dict -> dict.licenseFor("AGPL-1.0-only"));
         UPGRADE_MAP.put("agpl-1.0", dict -> dict.licenseFor("AGPL-1.0-or-later"));
@@ -72,10 +73,8 @@ public class LicenseDictionary {
 
     private final String version;
     private final Map<String, String> spdxIdentifiers = new HashMap<>();
-    private final Map<String, Integer> customIdentifiers = new HashMap<>();
-    private final Map<Integer, String> customLicenses = new HashMap<>();
     private final Map<String, String> spdxExceptions = new HashMap<>();
-    private int nextCustomId = 1;
+    private final AtomicReference<Registry> registry = new AtomicReference<>(new Registry(0));
 
     LicenseDictionary() {
         version = loadLicenses();
@@ -84,11 +83,7 @@ public class LicenseDictionary {
     }
 
     public static LicenseDictionary getInstance() {
-        if (instance == null) {
-            instance = new LicenseDictionary();
-        }
-
-        return instance;
+        return Holder.INSTANCE;
     }
 
     private String loadLicenses() {
@@ -121,9 +116,14 @@ public class LicenseDictionary {
     }
 
     void clear() {
-        customLicenses.clear();
-        customIdentifiers.clear();
-        nextCustomId = 1;
+        registry.getAndUpdate(current -> new Registry(current.generation + 1));
+    }
+
+    /**
+     * @return sequence number that changes whenever previously assigned custom license references become invalid
+     */
+    int getGeneration() {
+        return registry.get().generation;
     }
 
     public String getVersion() {
@@ -162,11 +162,7 @@ public class LicenseDictionary {
     }
 
     private License getOrCreateCustomLicense(String identifier) {
-        final var customId = PREFIX + customIdentifiers.computeIfAbsent(identifier.trim().toLowerCase(), x -> {
-            customLicenses.put(nextCustomId, identifier.trim());
-            return nextCustomId++;
-        });
-        return License.of(customId);
+        return License.of(PREFIX + registry.get().idFor(identifier.trim()));
     }
 
     public String expand(License license) {
@@ -177,9 +173,65 @@ public class LicenseDictionary {
                 .reduce(text, (prev, ref) -> prev.replace(ref, map.getOrDefault(ref, "?")));
     }
 
+    /**
+     * @param identifier custom license reference
+     * @return text of the custom license, or empty if the identifier was not assigned by this dictionary
+     */
+    public Optional<String> getCustomLicense(String identifier) {
+        if (!identifier.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            final int id = Integer.parseInt(identifier.substring(PREFIX.length()));
+            return Optional.ofNullable(registry.get().licenses.get(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return custom license texts by their identifier, ordered by identifier number
+     */
     public Map<String, String> getCustomLicenses() {
-        return customLicenses.entrySet().stream()
-                .collect(Collectors.toMap(e -> PREFIX + e.getKey(), Map.Entry::getValue));
+        final var licenses = registry.get().licenses;
+        final var result = new LinkedHashMap<String, String>();
+        licenses.keySet().stream()
+                .sorted()
+                .forEach(id -> result.put(PREFIX + id, licenses.get(id)));
+        return result;
+    }
+
+    private static class Holder {
+        static final LicenseDictionary INSTANCE = new LicenseDictionary();
+    }
+
+    /**
+     * Registry of custom licenses that is replaced as a whole when the dictionary is cleared.
+     * Identifiers are allocated atomically, so concurrent lookups of the same text yield the same identifier and
+     * identifiers are numbered without gaps.
+     */
+    private static class Registry {
+        final int generation;
+        final Map<String, Integer> identifiers = new ConcurrentHashMap<>();
+        final Map<Integer, String> licenses = new ConcurrentHashMap<>();
+        final AtomicInteger nextId = new AtomicInteger(1);
+
+        Registry(int generation) {
+            this.generation = generation;
+        }
+
+        int idFor(String text) {
+            final var key = text.toLowerCase();
+            final @NullOr Integer known = identifiers.get(key);
+            if (known != null) {
+                return known;
+            }
+            return identifiers.computeIfAbsent(key, k -> {
+                final int id = nextId.getAndIncrement();
+                licenses.put(id, text);
+                return id;
+            });
+        }
     }
 
     @SuppressWarnings({"NotNullFieldNotInitialized", "MismatchedQueryAndUpdateOfCollection"})
@@ -11,6 +11,9 @@ import pl.tlinkowski.annotation.basic.NullOr;
  * Parser for SPDX-like license statements containing AND, OR, WITH clauses and braces.
  */
 public class LicenseParser {
+    private static final int CACHE_SIZE = 4096;
+    private static final LicenseCache CACHE = new LicenseCache(CACHE_SIZE);
+
     private final LicenseDictionary dictionary;
     private StringBuilder buffer = new StringBuilder();
     private License license = License.NONE;
@@ -19,10 +22,6 @@ public class LicenseParser {
     private Mode mode = Mode.NONE;
     private boolean parsingWith = false;
 
-    private LicenseParser() {
-        this(LicenseDictionary.getInstance());
-    }
-
     private LicenseParser(LicenseDictionary dictionary) {
         this.dictionary = dictionary;
     }
@@ -35,7 +34,19 @@ public class LicenseParser {
             return License.NONE;
         }
         //TODO Catch any exceptions and convert to single plain license via dictionary
-        return new LicenseParser().decode(text);
+        final var dictionary = LicenseDictionary.getInstance();
+        return CACHE.get(text, dictionary.getGeneration(), () -> new LicenseParser(dictionary).decode(text));
+    }
+
+    /**
+     * @return usage of the cache of parsed license expressions
+     */
+    public static LicenseCache.Statistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    static void clearCache() {
+        CACHE.clear();
     }
 
     private License decode(String text) {
@@ -14,6 +14,7 @@ import java.util.*;
 
 /**
  * Single bill-of-materials package.
+ * Hashes and detected licenses can safely be added from concurrent threads.
  */
 public final class Package {
     private final String namespace;
@@ -23,6 +24,7 @@ public final class Package {
     private final Set<License> detectedLicenses = new HashSet<>();
     private boolean internal;
     private @NullOr PackageURL purl;
+    private @NullOr String canonicalPurl;
     private @NullOr Party supplier;
     private @NullOr Party originator;
     private @NullOr String filename;
@@ -79,9 +81,20 @@ public final class Package {
 
     public Package setPurl(PackageURL purl) {
         this.purl = purl;
+        this.canonicalPurl = null;
         return this;
     }
 
+    /**
+     * @return the canonical representation of the package URL
+     */
+    public Optional<String> getCanonicalPurl() {
+        if (canonicalPurl == null && purl != null) {
+            canonicalPurl = PurlFactory.canonical(purl);
+        }
+        return Optional.ofNullable(canonicalPurl);
+    }
+
     public Optional<Party> getOriginator() {
         return Optional.ofNullable(originator);
     }
@@ -127,11 +140,11 @@ public final class Package {
         return this;
     }
 
-    public Map<String, String> getHashes() {
-        return Collections.unmodifiableMap(hash);
+    public synchronized Map<String, String> getHashes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(hash));
     }
 
-    public Package addHash(String format, String hash) {
+    public synchronized Package addHash(String format, String hash) {
         this.hash.put(format.toUpperCase(), hash);
         return this;
     }
@@ -163,11 +176,11 @@ public final class Package {
         return this;
     }
 
-    public Collection<License> getDetectedLicenses() {
-        return detectedLicenses;
+    public synchronized Collection<License> getDetectedLicenses() {
+        return List.copyOf(detectedLicenses);
     }
 
-    public Package addDetectedLicense(License license) {
+    public synchronized Package addDetectedLicense(License license) {
         if (license.isDefined()) {
             this.detectedLicenses.add(license);
         }
@@ -227,9 +240,8 @@ public final class Package {
 
     @Override
     public String toString() {
-        return getPurl()
+        return getCanonicalPurl()
                 .filter(p -> !isInternal())
-                .map(PackageURL::canonicalize)
                 .orElse(getFullName() + (version == null || version.isBlank() ? "" : ", version " + version));
     }
 }
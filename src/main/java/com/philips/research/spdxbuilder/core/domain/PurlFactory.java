@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core.domain;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared factory for validated package URLs.
+ * Every distinct package URL is validated and canonicalized only once, and the same instance is returned for
+ * repeated coordinates. (Package URLs are looked up by both the provided and the normalized coordinates.)
+ */
+public final class PurlFactory {
+    private static final Map<Key, Entry> BY_COORDINATES = new ConcurrentHashMap<>();
+    private static final Map<String, Entry> BY_STRING = new ConcurrentHashMap<>();
+
+    private PurlFactory() {
+    }
+
+    /**
+     * @return the (cached) package URL for the coordinates
+     * @throws MalformedPackageURLException if the coordinates do not form a valid package URL
+     */
+    public static PackageURL of(String type, @NullOr String namespace, @NullOr String name, @NullOr String version)
+            throws MalformedPackageURLException {
+        return of(type, namespace, name, version, null);
+    }
+
+    /**
+     * @return the (cached) package URL for the coordinates
+     * @throws MalformedPackageURLException if the coordinates do not form a valid package URL
+     */
+    public static PackageURL of(String type, @NullOr String namespace, @NullOr String name, @NullOr String version,
+                                @NullOr Map<String, String> qualifiers) throws MalformedPackageURLException {
+        final var key = new Key(type, namespace, name, version, (qualifiers != null) ? Map.copyOf(qualifiers) : Map.of(), null);
+        final @NullOr Entry entry = BY_COORDINATES.get(key);
+        if (entry != null) {
+            return entry.purl;
+        }
+        final var sorted = (qualifiers != null && !qualifiers.isEmpty()) ? new TreeMap<>(qualifiers) : null;
+        final var registered = register(new PackageURL(type, namespace, name, version, sorted, null));
+        BY_COORDINATES.putIfAbsent(key, registered);
+        return registered.purl;
+    }
+
+    /**
+     * @return the (cached) package URL for the textual representation
+     * @throws MalformedPackageURLException if the text is not a valid package URL
+     */
+    public static PackageURL parse(String purl) throws MalformedPackageURLException {
+        final @NullOr Entry entry = BY_STRING.get(purl);
+        if (entry != null) {
+            return entry.purl;
+        }
+        final var registered = register(new PackageURL(purl));
+        BY_STRING.putIfAbsent(purl, registered);
+        return registered.purl;
+    }
+
+    /**
+     * @return the (cached) canonical string representation of the package URL
+     */
+    public static String canonical(PackageURL purl) {
+        final @NullOr Entry entry = BY_COORDINATES.get(Key.of(purl));
+        return (entry != null) ? entry.canonical : register(purl).canonical;
+    }
+
+    private static Entry register(PackageURL purl) {
+        final var entry = new Entry(purl);
+        final @NullOr Entry existing = BY_COORDINATES.putIfAbsent(Key.of(purl), entry);
+        return (existing != null) ? existing : entry;
+    }
+
+    private static final class Entry {
+        final PackageURL purl;
+        final String canonical;
+
+        Entry(PackageURL purl) {
+            this.purl = purl;
+            this.canonical = purl.canonicalize();
+        }
+    }
+
+    private static final class Key {
+        private final String type;
+        private final @NullOr String namespace;
+        private final @NullOr String name;
+        private final @NullOr String version;
+        private final Map<String, String> qualifiers;
+        private final @NullOr String subpath;
+        private final int hash;
+
+        Key(String type, @NullOr String namespace, @NullOr String name, @NullOr String version, Map<String, String> qualifiers, @NullOr String subpath) {
+            this.type = type;
+            this.namespace = namespace;
+            this.name = name;
+            this.version = version;
+            this.qualifiers = qualifiers;
+            this.subpath = subpath;
+            this.hash = Objects.hash(type, namespace, name, version, qualifiers, subpath);
+        }
+
+        static Key of(PackageURL purl) {
+            final @NullOr Map<String, String> qualifiers = purl.getQualifiers();
+            return new Key(purl.getType(), purl.getNamespace(), purl.getName(), purl.getVersion(),
+                    (qualifiers != null) ? qualifiers : Map.of(), purl.getSubpath());
+        }
+
+        @Override
+        public boolean equals(@NullOr Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hash == key.hash
+                    && type.equals(key.type)
+                    && Objects.equals(namespace, key.namespace)
+                    && Objects.equals(name, key.name)
+                    && Objects.equals(version, key.version)
+                    && qualifiers.equals(key.qualifiers)
+                    && Objects.equals(subpath, key.subpath);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
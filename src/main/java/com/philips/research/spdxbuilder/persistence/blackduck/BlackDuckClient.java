@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
 import okhttp3.OkHttpClient;
 import pl.tlinkowski.annotation.basic.NullOr;
 import retrofit2.Call;
@@ -40,8 +41,12 @@ public class BlackDuckClient {
     private @NullOr String bearerToken;
 
     public BlackDuckClient(URL url, boolean skipSSL) {
+        this(url, skipSSL, HttpTransport.getDefault());
+    }
+
+    public BlackDuckClient(URL url, boolean skipSSL, HttpTransport transport) {
         this.url = url;
-        final var client = new OkHttpClient.Builder()
+        final var client = transport.newClient()
                 .addInterceptor(chain -> {
                     if (bearerToken == null) {
                         return chain.proceed(chain.request());
@@ -10,6 +10,7 @@ import com.philips.research.spdxbuilder.core.BomReader;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.Package;
 import com.philips.research.spdxbuilder.core.domain.Relation;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.net.URL;
@@ -30,6 +31,12 @@ public class BlackDuckReader implements BomReader {
     private final String projectName;
     private final String versionName;
     private final Map<PackageURL, Package> packages = new HashMap<>();
+    private final Map<UUID, Set<PackageURL>> expanded = new HashMap<>();
+    private final Map<UUID, Package> subprojects = new HashMap<>();
+    private int threads = 1;
+    private double requestsPerSecond = 0;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private ComponentFetcher fetcher;
     @SuppressWarnings("NotNullFieldNotInitialized")
     private BlackDuckProduct project;
     @SuppressWarnings("NotNullFieldNotInitialized")
@@ -39,6 +46,10 @@ public class BlackDuckReader implements BomReader {
         this(new BlackDuckClient(url, skipSSL), token, projectName, versionName);
     }
 
+    public BlackDuckReader(URL url, String token, String projectName, String versionName, boolean skipSSL, HttpTransport transport) {
+        this(new BlackDuckClient(url, skipSSL, transport), token, projectName, versionName);
+    }
+
     BlackDuckReader(BlackDuckClient client, String token, String projectName, String versionName) {
         this.client = client;
         this.token = token;
@@ -46,6 +57,21 @@ public class BlackDuckReader implements BomReader {
         this.versionName = versionName;
     }
 
+    /**
+     * Configures the crawling of the component hierarchy.
+     *
+     * @param threads           maximum number of concurrent requests to the server
+     * @param requestsPerSecond maximum sustained request rate, or unlimited if not positive
+     */
+    public BlackDuckReader setConcurrency(int threads, double requestsPerSecond) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.threads = threads;
+        this.requestsPerSecond = requestsPerSecond;
+        return this;
+    }
+
     @Override
     public void read(BillOfMaterials bom) {
         client.authenticate(token);
@@ -55,7 +81,10 @@ public class BlackDuckReader implements BomReader {
 
         findProjectVersion(projectName, versionName);
 
-        exportProjectVersion(bom);
+        try (var fetcher = new ComponentFetcher(client, threads, new RateLimiter(requestsPerSecond, threads))) {
+            this.fetcher = fetcher;
+            exportProjectVersion(bom);
+        }
     }
 
     private void findProjectVersion(String projectName, String versionName) {
@@ -95,6 +124,7 @@ public class BlackDuckReader implements BomReader {
     }
 
     void addChildren(BillOfMaterials bom, @NullOr Package parent, List<BlackDuckComponent> components, UUID projectId, UUID versionId) {
+        components.forEach(component -> prefetch(component, projectId, versionId));
         components.forEach(component -> {
             if (component.isSubproject()) {
                 addSubproject(bom, parent, component.getId(), component.getVersionId(), component);
@@ -105,11 +135,41 @@ public class BlackDuckReader implements BomReader {
         });
     }
 
+    /**
+     * Requests the information that is needed to add the component, so the children of its siblings are
+     * retrieved from the server while the hierarchy is built depth-first.
+     */
+    private void prefetch(BlackDuckComponent component, UUID projectId, UUID versionId) {
+        if (component.isSubproject()) {
+            if (!subprojects.containsKey(component.getVersionId())) {
+                fetcher.prefetchRootComponents(component.getId(), component.getVersionId());
+            }
+            return;
+        }
+
+        final var visited = expanded.getOrDefault(versionId, Set.of());
+        for (var purl : component.getPackageUrls()) {
+            if (!packages.containsKey(purl)) {
+                fetcher.prefetchDetails(purl, component);
+            }
+            if (!visited.contains(purl)) {
+                fetcher.prefetchDependencies(projectId, versionId, purl, component);
+            }
+        }
+    }
+
     private void addSubproject(BillOfMaterials bom, @NullOr Package parent, UUID projectId, UUID versionId, BlackDuckComponent component) {
+        final @NullOr Package existing = subprojects.get(versionId);
+        if (existing != null) {
+            fetcher.discardRootComponents(versionId);
+            exportRelation(bom, parent, existing, relationshipFor(component));
+            return;
+        }
+
         final Package pkg = exportAnonymousPackage(bom, parent, component);
-        component.getLicense().ifPresent(pkg::setConcludedLicense);
+        subprojects.put(versionId, pkg);
 
-        final var components = client.getRootComponents(projectId, versionId);
+        final var components = fetcher.getRootComponents(projectId, versionId);
         addChildren(bom, pkg, components, projectId, versionId);
     }
 
@@ -145,7 +205,7 @@ public class BlackDuckReader implements BomReader {
 
     private Package exportPackageIfNotExists(BillOfMaterials bom, BlackDuckComponent component, PackageURL purl, UUID projectId, UUID versionId) {
         @NullOr Package pkg = packages.computeIfAbsent(purl, x -> {
-            final var details = client.getComponentDetails(component);
+            final var details = fetcher.getDetails(purl, component);
             final var newPkg = new Package(purl)
                     .setSummary(component.getName());
             component.getLicense().ifPresent(newPkg::setConcludedLicense);
@@ -154,9 +214,14 @@ public class BlackDuckReader implements BomReader {
             bom.addPackage(newPkg);
             return newPkg;
         });
+        fetcher.discardDetails(purl);
 
-        final var dependencies = client.getDependencies(projectId, versionId, component);
-        addChildren(bom, pkg, dependencies, projectId, versionId);
+        if (expanded.computeIfAbsent(versionId, id -> new HashSet<>()).add(purl)) {
+            final var dependencies = fetcher.getDependencies(projectId, versionId, purl, component);
+            addChildren(bom, pkg, dependencies, projectId, versionId);
+        } else {
+            fetcher.discardDependencies(versionId, purl);
+        }
         return pkg;
     }
 
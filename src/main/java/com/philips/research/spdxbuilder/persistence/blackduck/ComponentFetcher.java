@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.blackduck;
+
+import com.github.packageurl.PackageURL;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Requests component information from the Black Duck server ahead of its use.
+ * Prefetched requests are executed by a bounded number of threads within the request rate limit, while the
+ * results are consumed in the (deterministic) order of the caller.
+ * Apart from the executed requests, this class is not thread-safe and must be used from a single thread.
+ */
+class ComponentFetcher implements AutoCloseable {
+    private final BlackDuckClient client;
+    private final RateLimiter limiter;
+    private final ExecutorService executor;
+    private final Map<PackageURL, CompletableFuture<BlackDuckComponentDetails>> details = new HashMap<>();
+    private final Map<DependencyKey, CompletableFuture<List<BlackDuckComponent>>> dependencies = new HashMap<>();
+    private final Map<UUID, CompletableFuture<List<BlackDuckComponent>>> roots = new HashMap<>();
+
+    ComponentFetcher(BlackDuckClient client, int threads, RateLimiter limiter) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.client = client;
+        this.limiter = limiter;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final var thread = new Thread(runnable, "black-duck-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void prefetchDetails(PackageURL purl, BlackDuckComponent component) {
+        details.computeIfAbsent(purl, p -> submit(() -> client.getComponentDetails(component)));
+    }
+
+    void prefetchDependencies(UUID projectId, UUID versionId, PackageURL purl, BlackDuckComponent component) {
+        dependencies.computeIfAbsent(new DependencyKey(versionId, purl),
+                k -> submit(() -> client.getDependencies(projectId, versionId, component)));
+    }
+
+    void prefetchRootComponents(UUID projectId, UUID versionId) {
+        roots.computeIfAbsent(versionId, id -> submit(() -> client.getRootComponents(projectId, versionId)));
+    }
+
+    BlackDuckComponentDetails getDetails(PackageURL purl, BlackDuckComponent component) {
+        prefetchDetails(purl, component);
+        return await(details.remove(purl));
+    }
+
+    List<BlackDuckComponent> getDependencies(UUID projectId, UUID versionId, PackageURL purl, BlackDuckComponent component) {
+        prefetchDependencies(projectId, versionId, purl, component);
+        return await(dependencies.remove(new DependencyKey(versionId, purl)));
+    }
+
+    List<BlackDuckComponent> getRootComponents(UUID projectId, UUID versionId) {
+        prefetchRootComponents(projectId, versionId);
+        return await(roots.remove(versionId));
+    }
+
+    /**
+     * Cancels prefetched details that are not needed, because the package was already added.
+     */
+    void discardDetails(PackageURL purl) {
+        cancel(details.remove(purl));
+    }
+
+    /**
+     * Cancels prefetched dependencies that are not needed, because the package was already expanded.
+     */
+    void discardDependencies(UUID versionId, PackageURL purl) {
+        cancel(dependencies.remove(new DependencyKey(versionId, purl)));
+    }
+
+    /**
+     * Cancels prefetched root components that are not needed, because the subproject was already added.
+     */
+    void discardRootComponents(UUID versionId) {
+        cancel(roots.remove(versionId));
+    }
+
+    private void cancel(@NullOr CompletableFuture<?> future) {
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Executes the request unless it is cancelled before it is started or before it obtains its rate limit token.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> request) {
+        final var future = new CompletableFuture<T>();
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                limiter.acquire();
+                if (!future.isDone()) {
+                    future.complete(request.get());
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new BlackDuckException("Black Duck request failed", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        details.values().forEach(f -> f.cancel(true));
+        dependencies.values().forEach(f -> f.cancel(true));
+        roots.values().forEach(f -> f.cancel(true));
+        executor.shutdownNow();
+    }
+
+    private static final class DependencyKey {
+        private final UUID versionId;
+        private final PackageURL purl;
+
+        DependencyKey(UUID versionId, PackageURL purl) {
+            this.versionId = versionId;
+            this.purl = purl;
+        }
+
+        @Override
+        public boolean equals(@NullOr Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DependencyKey that = (DependencyKey) o;
+            return versionId.equals(that.versionId) && purl.equals(that.purl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(versionId, purl);
+        }
+    }
+}
@@ -7,7 +7,7 @@ package com.philips.research.spdxbuilder.persistence.blackduck;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
-import com.github.packageurl.PackageURLBuilder;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.Optional;
@@ -23,12 +23,7 @@ public class PackageIdentifier {
 
     Optional<PackageURL> getPurl() {
         try {
-            return Optional.of(PackageURLBuilder.aPackageURL()
-                    .withType(type())
-                    .withNamespace(namespace())
-                    .withName(name())
-                    .withVersion(version())
-                    .build());
+            return Optional.of(PurlFactory.of(type(), namespace(), name(), version()));
         } catch (MalformedPackageURLException e) {
             System.err.println("Invalid package URL for namespace '" + externalNamespace + "', id '" + externalId + "': " + e);
             return Optional.empty();
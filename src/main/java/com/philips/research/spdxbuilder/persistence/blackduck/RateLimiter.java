@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.blackduck;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket limiting the rate of requests to the server.
+ * Callers reserve a token and wait outside the lock until their token becomes available.
+ */
+class RateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final LongSupplier clock;
+    private double tokens;
+    private long last;
+
+    /**
+     * @param permitsPerSecond sustained number of requests per second, or unlimited if not positive
+     * @param burst            maximum number of requests that can be issued at once after a quiet period
+     */
+    RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.clock = clock;
+        this.tokens = capacity;
+        this.last = clock.getAsLong();
+    }
+
+    /**
+     * Blocks until a request is allowed.
+     */
+    void acquire() {
+        final long wait = reserve();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlackDuckException("Interrupted while waiting for the request rate limit");
+            }
+        }
+    }
+
+    /**
+     * Takes a token from the bucket.
+     *
+     * @return nanoseconds to wait before the token is available
+     */
+    synchronized long reserve() {
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        final long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - last) * permitsPerSecond / NANOS_PER_SECOND);
+        last = now;
+        tokens -= 1;
+        return (tokens < 0) ? (long) Math.ceil(-tokens * NANOS_PER_SECOND / permitsPerSecond) : 0;
+    }
+}
@@ -7,7 +7,9 @@ package com.philips.research.spdxbuilder.persistence.bom_base;
 
 import pl.tlinkowski.annotation.basic.NullOr;
 import retrofit2.Call;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.POST;
 import retrofit2.http.Path;
 
 import java.net.MalformedURLException;
@@ -23,6 +25,20 @@ public interface BomBaseApi {
     @GET("/packages/{purl}")
     Call<PackageJson> getPackage(@Path("purl") String purl);
 
+    /**
+     * @return metadata by canonical package URL, omitting the packages that are unknown
+     */
+    @POST("/packages")
+    Call<Map<String, PackageJson>> getPackages(@Body BulkRequestJson request);
+
+    class BulkRequestJson {
+        List<String> purls;
+
+        BulkRequestJson(List<String> purls) {
+            this.purls = purls;
+        }
+    }
+
     class PackageJson implements PackageMetadata {
         Map<String, Object> attributes = new HashMap<>();
 
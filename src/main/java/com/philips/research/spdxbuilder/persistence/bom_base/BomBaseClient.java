@@ -12,6 +12,11 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import com.philips.research.spdxbuilder.persistence.bom_base.BomBaseApi.BulkRequestJson;
+import com.philips.research.spdxbuilder.persistence.bom_base.BomBaseApi.PackageJson;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
+import pl.tlinkowski.annotation.basic.NullOr;
 import retrofit2.Call;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
@@ -20,9 +25,18 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 class BomBaseClient {
+    static final int DEFAULT_BATCH_SIZE = 100;
+    private static final Set<Integer> UNSUPPORTED_STATUS = Set.of(404, 405, 501);
+
     private static final ObjectMapper MAPPER = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
             .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.NON_PRIVATE)
@@ -30,19 +44,119 @@ class BomBaseClient {
 
     private final URI server;
     private final BomBaseApi rest;
+    private final @NullOr PackageCache cache;
+    private final Map<String, Optional<PackageJson>> prefetched = new ConcurrentHashMap<>();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile boolean bulkSupported = true;
 
     BomBaseClient(URI server) {
+        this(server, null);
+    }
+
+    BomBaseClient(URI server, @NullOr PackageCache cache) {
+        this(server, cache, HttpTransport.getDefault());
+    }
+
+    BomBaseClient(URI server, @NullOr PackageCache cache, HttpTransport transport) {
         this.server = server;
+        this.cache = cache;
         final var retrofit = new Retrofit.Builder()
+                .client(transport.client())
                 .baseUrl(server.toASCIIString())
                 .addConverterFactory(JacksonConverterFactory.create(MAPPER))
                 .build();
         rest = retrofit.create(BomBaseApi.class);
     }
 
+    /**
+     * @param batchSize maximum number of packages per bulk lookup
+     */
+    BomBaseClient setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Looks up the metadata of multiple packages in bulk, so subsequent reads of these packages are served locally.
+     * Lookups fall back to individual requests if the server does not support bulk lookups.
+     */
+    void prefetch(Collection<PackageURL> purls) {
+        final var pending = purls.stream()
+                .map(PurlFactory::canonical)
+                .distinct()
+                .filter(purl -> !prefetched.containsKey(purl))
+                .filter(purl -> cache == null || cache.read(purl).isEmpty())
+                .collect(Collectors.toList());
+        for (int i = 0; i < pending.size() && bulkSupported; i += batchSize) {
+            final var batch = pending.subList(i, Math.min(i + batchSize, pending.size()));
+            fetchPackages(batch).ifPresent(found -> batch.forEach(purl -> {
+                final @NullOr PackageJson pkg = found.get(purl);
+                prefetched.put(purl, Optional.ofNullable(pkg));
+                if (cache != null) {
+                    cache.write(purl, pkg);
+                }
+            }));
+        }
+    }
+
     Optional<PackageMetadata> readPackage(PackageURL purl) {
-        final var param = encode(purl.canonicalize());
-        return query(rest.getPackage(param)).map(meta -> meta);
+        return readPackage(purl, false);
+    }
+
+    /**
+     * @param refresh bypasses any previously retrieved (absence of) metadata
+     */
+    Optional<PackageMetadata> readPackage(PackageURL purl, boolean refresh) {
+        final var canonical = PurlFactory.canonical(purl);
+        if (refresh) {
+            prefetched.remove(canonical);
+            final var pkg = fetchPackage(canonical);
+            if (cache != null) {
+                cache.write(canonical, pkg.orElse(null));
+            }
+            return pkg.map(meta -> meta);
+        }
+        final @NullOr Optional<PackageJson> known = prefetched.get(canonical);
+        if (known != null) {
+            return known.map(meta -> meta);
+        }
+        if (cache == null) {
+            return fetchPackage(canonical).map(meta -> meta);
+        }
+
+        final var cached = cache.read(canonical);
+        if (cached.isPresent()) {
+            return cached.get().getPackage().map(meta -> meta);
+        }
+        final var pkg = fetchPackage(canonical);
+        cache.write(canonical, pkg.orElse(null));
+        return pkg.map(meta -> meta);
+    }
+
+    private Optional<PackageJson> fetchPackage(String canonical) {
+        return query(rest.getPackage(encode(canonical)));
+    }
+
+    private Optional<Map<String, PackageJson>> fetchPackages(List<String> purls) {
+        try {
+            final var response = rest.getPackages(new BulkRequestJson(purls)).execute();
+            if (UNSUPPORTED_STATUS.contains(response.code())) {
+                bulkSupported = false;
+                return Optional.empty();
+            }
+            if (!response.isSuccessful()) {
+                throw new BomBaseException("BOM-base server responded with status " + response.code());
+            }
+            final @NullOr Map<String, PackageJson> body = response.body();
+            return Optional.of((body != null) ? body : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON formatting error", e);
+        } catch (IOException e) {
+            throw new BomBaseException("The BOM-base knowledge base is not reachable at " + server);
+        }
     }
 
     private String encode(String uri) {
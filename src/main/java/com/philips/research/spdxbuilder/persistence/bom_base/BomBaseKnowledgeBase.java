@@ -5,26 +5,68 @@
 
 package com.philips.research.spdxbuilder.persistence.bom_base;
 
+import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.KnowledgeBase;
+import com.philips.research.spdxbuilder.core.SingleFlight;
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.LicenseParser;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.net.URI;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class BomBaseKnowledgeBase extends KnowledgeBase {
     private final BomBaseClient client;
+    private final SingleFlight<String, Optional<PackageMetadata>> lookups = new SingleFlight<>();
 
     public BomBaseKnowledgeBase(URI serverUri) {
         this(new BomBaseClient(serverUri));
     }
 
+    public BomBaseKnowledgeBase(URI serverUri, PackageCache cache) {
+        this(new BomBaseClient(serverUri, cache));
+    }
+
+    public BomBaseKnowledgeBase(URI serverUri, @NullOr PackageCache cache, HttpTransport transport) {
+        this(new BomBaseClient(serverUri, cache, transport));
+    }
+
     public BomBaseKnowledgeBase(BomBaseClient client) {
         this.client = client;
     }
 
+    /**
+     * Looks up the metadata of all external packages in bulk before enhancing the individual packages.
+     */
+    @Override
+    public boolean enhance(BillOfMaterials bom) {
+        client.prefetch(bom.getPackages().stream()
+                .filter(pkg -> !pkg.isInternal())
+                .map(Package::getPurl)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList()));
+        return super.enhance(bom);
+    }
+
     @Override
     public boolean enhance(Package pkg) {
-        return pkg.getPurl().flatMap(client::readPackage)
+        return enhance(pkg, false);
+    }
+
+    /**
+     * Polls BOM-base for packages it did not know about, as BOM-base harvests unknown packages in the background.
+     */
+    @Override
+    protected boolean retry(Package pkg) {
+        return enhance(pkg, true);
+    }
+
+    private boolean enhance(Package pkg, boolean refresh) {
+        return pkg.getPurl().flatMap(purl -> readPackage(purl, refresh))
                 .map(meta -> {
                     meta.getTitle().ifPresent(pkg::setSummary);
                     meta.getDescription().ifPresent(pkg::setDescription);
@@ -38,4 +80,11 @@ public class BomBaseKnowledgeBase extends KnowledgeBase {
                     return meta;
                 }).isPresent();
     }
+
+    private Optional<PackageMetadata> readPackage(PackageURL purl, boolean refresh) {
+        // A refresh must not join (or be joined by) a lookup that may be served from the cache
+        final var key = (refresh ? "refresh:" : "") + PurlFactory.canonical(purl);
+        return lookups.get(key,
+                () -> refresh ? client.readPackage(purl, true) : client.readPackage(purl));
+    }
 }
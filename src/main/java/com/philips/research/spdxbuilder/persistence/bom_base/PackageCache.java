@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.bom_base;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.philips.research.spdxbuilder.persistence.bom_base.BomBaseApi.PackageJson;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persistent cache of BOM-base package metadata, keyed by canonical package URL.
+ * Every entry is stored as a separate small JSON file that is replaced atomically, so multiple processes can
+ * share the same cache directory without locking. Packages unknown to BOM-base are cached as negative entries.
+ */
+public class PackageCache {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.NON_PRIVATE);
+    private static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofHours(1);
+
+    private final Path directory;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+
+    /**
+     * @param directory location of the cache files
+     * @param ttl       maximum age of cached metadata
+     */
+    public PackageCache(Path directory, Duration ttl) {
+        this(directory, ttl, (ttl.compareTo(DEFAULT_NEGATIVE_TTL) < 0) ? ttl : DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**
+     * @param directory   location of the cache files
+     * @param ttl         maximum age of cached metadata
+     * @param negativeTtl maximum age of cached entries for packages unknown to BOM-base
+     */
+    public PackageCache(Path directory, Duration ttl, Duration negativeTtl) {
+        this(directory, ttl, negativeTtl, Clock.systemUTC());
+    }
+
+    PackageCache(Path directory, Duration ttl, Duration negativeTtl, Clock clock) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * @param purl canonical package URL
+     * @return cached entry, or empty if no valid entry is cached
+     */
+    Optional<Entry> read(String purl) {
+        final var file = fileFor(purl);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            final var json = MAPPER.readValue(file.toFile(), EntryJson.class);
+            if (!purl.equals(json.purl) || isExpired(json)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(json.attributes));
+        } catch (IOException e) {
+            // Treat unreadable entries (e.g. from an older format) as absent
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the (absence of) package metadata.
+     *
+     * @param purl canonical package URL
+     * @param pkg  metadata, or <code>null</code> if the package is unknown
+     */
+    void write(String purl, @NullOr PackageJson pkg) {
+        final var file = fileFor(purl);
+        final var json = new EntryJson();
+        json.purl = purl;
+        json.timestamp = clock.millis();
+        json.attributes = (pkg != null) ? pkg.attributes : null;
+        try {
+            Files.createDirectories(file.getParent());
+            final var temp = Files.createTempFile(file.getParent(), ".", ".tmp");
+            try {
+                MAPPER.writeValue(temp.toFile(), json);
+                move(temp, file);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("WARNING: Failed to cache metadata for " + purl + ": " + e.getMessage());
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean isExpired(EntryJson json) {
+        final var maxAge = (json.attributes != null) ? ttl : negativeTtl;
+        return Instant.ofEpochMilli(json.timestamp).plus(maxAge).isBefore(clock.instant());
+    }
+
+    private Path fileFor(String purl) {
+        final var hash = sha256(purl);
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2) + ".json");
+    }
+
+    private String sha256(String text) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            final var hex = new StringBuilder();
+            for (var b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Cached (absence of) package metadata.
+     */
+    static class Entry {
+        private final @NullOr Map<String, Object> attributes;
+
+        Entry(@NullOr Map<String, Object> attributes) {
+            this.attributes = attributes;
+        }
+
+        Optional<PackageJson> getPackage() {
+            if (attributes == null) {
+                return Optional.empty();
+            }
+            final var pkg = new PackageJson();
+            pkg.attributes = attributes;
+            return Optional.of(pkg);
+        }
+    }
+
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private static class EntryJson {
+        String purl;
+        long timestamp;
+        @NullOr Map<String, Object> attributes;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.http;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP connection settings shared by all outbound REST clients.
+ * All clients derived from a transport share the same connection pool and request limits, so connections
+ * to a server are reused across clients and concurrent (synchronous as well as asynchronous) requests are
+ * limited in total and per host.
+ */
+public final class HttpTransport {
+    private static @NullOr HttpTransport defaultTransport;
+
+    private final OkHttpClient client;
+
+    private HttpTransport(Builder builder) {
+        final int maxRequests = Math.max(builder.maxRequests, builder.maxRequestsPerHost);
+        final var dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+        client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .addInterceptor(new RequestLimiter(maxRequests, builder.maxRequestsPerHost))
+                .connectionPool(new ConnectionPool(builder.maxIdleConnections, builder.keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .protocols(builder.preferHttp2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(builder.connectTimeout)
+                .readTimeout(builder.readTimeout)
+                .writeTimeout(builder.readTimeout)
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return transport used by clients that are not provided with an explicit transport
+     */
+    public static synchronized HttpTransport getDefault() {
+        if (defaultTransport == null) {
+            defaultTransport = builder().build();
+        }
+        return defaultTransport;
+    }
+
+    /**
+     * @return the shared HTTP client
+     */
+    public OkHttpClient client() {
+        return client;
+    }
+
+    /**
+     * @return builder for a client with additional settings, sharing the connection pool and request limits
+     */
+    public OkHttpClient.Builder newClient() {
+        return client.newBuilder();
+    }
+
+    public static final class Builder {
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 16;
+        private int maxIdleConnections = 16;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private boolean preferHttp2 = true;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxRequests maximum number of concurrent requests over all hosts
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = positive(maxRequests, "Maximum requests");
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost maximum number of concurrent requests to a single host
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = positive(maxRequestsPerHost, "Maximum requests per host");
+            return this;
+        }
+
+        /**
+         * @param maxIdleConnections maximum number of idle connections kept in the pool
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = positive(maxIdleConnections, "Maximum idle connections");
+            return this;
+        }
+
+        /**
+         * @param keepAlive time an idle connection is kept in the pool
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * @param preferHttp2 negotiates HTTP/2 with servers that support it, instead of only HTTP/1.1
+         */
+        public Builder preferHttp2(boolean preferHttp2) {
+            this.preferHttp2 = preferHttp2;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * @param readTimeout maximum time of inactivity while reading (or writing) a message
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public HttpTransport build() {
+            return new HttpTransport(this);
+        }
+
+        private int positive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1");
+            }
+            return value;
+        }
+    }
+}
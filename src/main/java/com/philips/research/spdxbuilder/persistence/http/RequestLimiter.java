@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of concurrent requests in total and per host.
+ * As the dispatcher of the HTTP client only limits asynchronous calls, this interceptor blocks synchronous
+ * calls until a permit becomes available. A permit is held until the response headers are received.
+ */
+class RequestLimiter implements Interceptor {
+    private final Semaphore total;
+    private final int maxPerHost;
+    private final Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    RequestLimiter(int maxRequests, int maxPerHost) {
+        this.total = new Semaphore(maxRequests, true);
+        this.maxPerHost = maxPerHost;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var host = hosts.computeIfAbsent(chain.request().url().host(), h -> new Semaphore(maxPerHost, true));
+        acquire(host);
+        try {
+            acquire(total);
+            try {
+                return chain.proceed(chain.request());
+            } finally {
+                total.release();
+            }
+        } finally {
+            host.release();
+        }
+    }
+
+    private void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request permit");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.license_scanner;
+
+import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background submission of contested licenses to the license scanner.
+ * Contests are collected in batches by a single worker thread that sends each batch concurrently while
+ * enhancement continues, retrying failed submissions with an increasing delay. Every package is contested
+ * at most once. Problems are only reported in the summary, as contests never affect the generated SBOM.
+ */
+class ContestQueue {
+    static final int BATCH_SIZE = 50;
+    static final int ATTEMPTS = 3;
+    static final int SENDERS = 4;
+    private static final long POLL_MILLIS = 50;
+
+    private final LicenseScannerClient client;
+    private final Duration retryDelay;
+    private final Duration timeout;
+    private final BlockingQueue<Contest> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Boolean> contested = new ConcurrentHashMap<>();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final List<String> failures = new CopyOnWriteArrayList<>();
+    private @NullOr ExecutorService worker;
+    private @NullOr ExecutorService senders;
+    private @NullOr Future<?> running;
+    private volatile boolean closing;
+
+    /**
+     * @param retryDelay delay before the first retry of a failed submission
+     * @param timeout    maximum time to wait for pending submissions when finishing
+     */
+    ContestQueue(LicenseScannerClient client, Duration retryDelay, Duration timeout) {
+        this.client = client;
+        this.retryDelay = retryDelay;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Queues a contest for submission in the background.
+     *
+     * @param purl    package of which the scanned license is contested
+     * @param license the expected license
+     */
+    void contest(PackageURL purl, String license) {
+        if (contested.putIfAbsent(PurlFactory.canonical(purl), Boolean.TRUE) != null) {
+            return;
+        }
+        start();
+        queue.add(new Contest(purl, license));
+    }
+
+    /**
+     * Waits (up to the timeout) until all queued contests have been submitted.
+     *
+     * @return outcome of all contests
+     */
+    Summary finish() {
+        final Future<?> future;
+        synchronized (this) {
+            future = running;
+        }
+        if (future != null) {
+            closing = true;
+            try {
+                future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                failures.add("all pending packages: " + e.getCause());
+            } catch (TimeoutException e) {
+                // Reported as unsent contests
+            } finally {
+                stop();
+            }
+        }
+        final int done = submitted.get() + failures.size();
+        return new Summary(submitted.get(), List.copyOf(failures), Math.max(0, contested.size() - done));
+    }
+
+    private synchronized void start() {
+        if (worker == null) {
+            worker = Executors.newSingleThreadExecutor(daemon("license-contests"));
+            senders = Executors.newFixedThreadPool(SENDERS, daemon("license-contest-sender"));
+            running = worker.submit(this::process);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            final var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private synchronized void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+        if (senders != null) {
+            senders.shutdownNow();
+        }
+        worker = null;
+        senders = null;
+        running = null;
+        closing = false;
+    }
+
+    private void process() {
+        final var batch = new ArrayList<Contest>();
+        while (!closing || !queue.isEmpty()) {
+            try {
+                final @NullOr Contest first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void send(List<Contest> batch) throws InterruptedException {
+        //noinspection ConstantConditions
+        final var executor = senders;
+        final var futures = new ArrayList<Future<?>>();
+        for (var contest : batch) {
+            futures.add(executor.submit(() -> submit(contest)));
+        }
+        for (var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Failures are recorded by the submission itself
+            }
+        }
+    }
+
+    private void submit(Contest contest) {
+        var delay = retryDelay;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                client.contest(contest.purl, contest.license);
+                submitted.incrementAndGet();
+                return;
+            } catch (LicenseScannerException e) {
+                if (attempt >= ATTEMPTS) {
+                    failures.add(contest.purl + ": " + e.getMessage());
+                    return;
+                }
+            } catch (RuntimeException e) {
+                failures.add(contest.purl + ": " + e);
+                return;
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(contest.purl + ": interrupted");
+                return;
+            }
+            delay = delay.multipliedBy(2);
+        }
+    }
+
+    private static class Contest {
+        final PackageURL purl;
+        final String license;
+
+        Contest(PackageURL purl, String license) {
+            this.purl = purl;
+            this.license = license;
+        }
+    }
+
+    /**
+     * Outcome of the submitted contests.
+     */
+    static class Summary {
+        final int submitted;
+        final List<String> failures;
+        final int unsent;
+
+        Summary(int submitted, List<String> failures, int unsent) {
+            this.submitted = submitted;
+            this.failures = failures;
+            this.unsent = unsent;
+        }
+    }
+}
@@ -6,11 +6,16 @@
 package com.philips.research.spdxbuilder.persistence.license_scanner;
 
 import com.philips.research.spdxbuilder.core.KnowledgeBase;
+import com.philips.research.spdxbuilder.core.SingleFlight;
 import com.philips.research.spdxbuilder.core.domain.LicenseDictionary;
 import com.philips.research.spdxbuilder.core.domain.LicenseParser;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Optional;
 
 /**
@@ -18,14 +23,28 @@ import java.util.Optional;
  * See https://github.com/philips-software/license-scanner
  */
 public class LicenseKnowledgeBase extends KnowledgeBase {
+    private static final Duration CONTEST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration CONTEST_TIMEOUT = Duration.ofMinutes(2);
+
     final LicenseScannerClient licenseClient;
+    private final SingleFlight<String, Optional<LicenseScannerClient.LicenseInfo>> scans = new SingleFlight<>();
+    private final ContestQueue contests;
 
     public LicenseKnowledgeBase(URI uri) {
         this(new LicenseScannerClient(uri));
     }
 
+    public LicenseKnowledgeBase(URI uri, HttpTransport transport) {
+        this(new LicenseScannerClient(uri, transport));
+    }
+
     LicenseKnowledgeBase(LicenseScannerClient client) {
+        this(client, new ContestQueue(client, CONTEST_RETRY_DELAY, CONTEST_TIMEOUT));
+    }
+
+    LicenseKnowledgeBase(LicenseScannerClient client, ContestQueue contests) {
         this.licenseClient = client;
+        this.contests = contests;
     }
 
     @Override
@@ -48,20 +67,39 @@ public class LicenseKnowledgeBase extends KnowledgeBase {
                         final var declaredText = dictionary.expand(declared);
                         if (!scannedText.equals(declaredText)) {
                             //noinspection OptionalGetWithoutIsPresent
-                            licenseClient.contest(pkg.getPurl().get(), declaredText);
+                            contests.contest(pkg.getPurl().get(), declaredText);
                         }
                     }
                     return l;
                 }).isPresent();
     }
 
-    private Optional<LicenseScannerClient.LicenseInfo> detectLicense(Package pkg) {
-        try {
-            //noinspection OptionalGetWithoutIsPresent
-            return licenseClient.scanLicense(pkg.getPurl().get(), pkg.getSourceLocation().orElse(null));
-        } catch (LicenseScannerException e) {
-            System.err.println("ERROR: " + e.getMessage());
-            return Optional.empty();
+    /**
+     * Completes the submission of contested licenses, and reports the outcome.
+     */
+    @Override
+    public void finish() {
+        final var summary = contests.finish();
+        if (summary.submitted > 0) {
+            System.out.println("Contested " + summary.submitted + " scanned license(s)");
+        }
+        summary.failures.forEach(failure -> System.err.println("WARNING: Failed to contest license of " + failure));
+        if (summary.unsent > 0) {
+            System.err.println("WARNING: Gave up on " + summary.unsent + " contested license(s) that were not submitted in time");
         }
     }
+
+    private Optional<LicenseScannerClient.LicenseInfo> detectLicense(Package pkg) {
+        //noinspection OptionalGetWithoutIsPresent
+        final var purl = pkg.getPurl().get();
+        final @NullOr URI location = pkg.getSourceLocation().orElse(null);
+        return scans.get(PurlFactory.canonical(purl) + ' ' + location, () -> {
+            try {
+                return licenseClient.scanLicense(purl, location);
+            } catch (LicenseScannerException e) {
+                System.err.println("ERROR: " + e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
 }
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
+import com.philips.research.spdxbuilder.persistence.http.HttpTransport;
 import com.philips.research.spdxbuilder.persistence.license_scanner.LicenseScannerApi.ContestJson;
 import com.philips.research.spdxbuilder.persistence.license_scanner.LicenseScannerApi.RequestJson;
 import pl.tlinkowski.annotation.basic.NullOr;
@@ -40,8 +42,13 @@ public class LicenseScannerClient {
     private final LicenseScannerApi rest;
 
     public LicenseScannerClient(URI licenseServer) {
+        this(licenseServer, HttpTransport.getDefault());
+    }
+
+    public LicenseScannerClient(URI licenseServer, HttpTransport transport) {
         this.licenseServer = licenseServer;
         final var retrofit = new Retrofit.Builder()
+                .client(transport.client())
                 .baseUrl(licenseServer.toASCIIString())
                 .addConverterFactory(JacksonConverterFactory.create(MAPPER))
                 .build();
@@ -54,7 +61,7 @@ public class LicenseScannerClient {
      * @return detected license for the package
      */
     public Optional<LicenseInfo> scanLicense(PackageURL purl, @NullOr URI location) {
-        final var body = new RequestJson(purl.canonicalize(), location);
+        final var body = new RequestJson(PurlFactory.canonical(purl), location);
 
         return query(rest.scan(body))
                 .filter(r -> r.license != null)
@@ -62,7 +69,7 @@ public class LicenseScannerClient {
     }
 
     public void contest(PackageURL purl, String license) {
-        final var scanId = URLEncoder.encode(purl.canonicalize(), StandardCharsets.UTF_8);
+        final var scanId = URLEncoder.encode(PurlFactory.canonical(purl), StandardCharsets.UTF_8);
         query(rest.contest(scanId, new ContestJson(license)));
     }
 
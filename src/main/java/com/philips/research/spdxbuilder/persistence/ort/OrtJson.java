@@ -5,12 +5,14 @@
 
 package com.philips.research.spdxbuilder.persistence.ort;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.LicenseParser;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 import com.philips.research.spdxbuilder.core.domain.Relation;
 import pl.tlinkowski.annotation.basic.NullOr;
 
@@ -86,6 +88,10 @@ class AnalyzerJson {
 class ResultJson {
     List<ProjectJson> projects = new ArrayList<>();
     List<PackageWrapperJson> packages = new ArrayList<>();
+    @JsonIgnore
+    List<ProjectJson> detected = new ArrayList<>();
+    @JsonIgnore
+    Map<String, DependencyGraphJson> dependencyGraphs = new HashMap<>();
     // TODO At least warn for incomplete results
     boolean hasIssues;
 
@@ -101,6 +107,9 @@ class ResultJson {
 
     public void keepProjects(Set<String> projectIds) {
         projects.removeIf(project -> !projectIds.contains(project.id));
+    }
+
+    public void verifyProjects(Set<String> projectIds) {
         final var missing = projectIds.stream()
                 .filter(id -> projects.stream().noneMatch(p -> id.equals(p.id)))
                 .peek(id -> System.out.println("ERROR: Project '" + id + "' is not found in the ORT file"))
@@ -113,6 +122,17 @@ class ResultJson {
     public void updateProjectPackages(Map<String, URI> projectPackages) {
         projects.forEach(project -> project.purl = projectPackages.get(project.id));
     }
+
+    /**
+     * @return the shared dependency graph for the scopes of the project (if any)
+     */
+    Optional<DependencyGraphJson> graphFor(ProjectJson project) {
+        if (project.id == null || project.scopeNames.isEmpty()) {
+            return Optional.empty();
+        }
+        final var type = project.id.split(":", 2)[0];
+        return Optional.ofNullable(dependencyGraphs.get(type));
+    }
 }
 
 class PackageWrapperJson {
@@ -134,7 +154,7 @@ class PackageJson {
         @NullOr PackageURL packageUrl = null;
         if (purl != null) {
             try {
-                packageUrl = new PackageURL(purl.toASCIIString());
+                packageUrl = PurlFactory.parse(purl.toASCIIString());
             } catch (MalformedPackageURLException e) {
                 throw new IllegalArgumentException("'" + purl + "' is not a valid Package URL");
             }
@@ -186,11 +206,25 @@ class DeclaredLicensesJson {
 
 class ProjectJson extends PackageJson {
     List<DependencyJson> scopes = new ArrayList<>();
+    List<String> scopeNames = new ArrayList<>();
     @NullOr File definitionFilePath;
 
     public void removeScopes(Set<PathMatcher> excludedScopes) {
-        scopes.removeIf(scope -> excludedScopes.stream()
-                .anyMatch(glob -> glob.matches(Path.of(scope.name))));
+        scopes.removeIf(scope -> isExcluded(scope.name, excludedScopes));
+        scopeNames.removeIf(name -> isExcluded(name, excludedScopes));
+    }
+
+    private boolean isExcluded(@NullOr String scope, Set<PathMatcher> excludedScopes) {
+        return excludedScopes.stream()
+                .anyMatch(glob -> glob.matches(Path.of(String.valueOf(scope))));
+    }
+
+    /**
+     * @return scope name as qualified in the shared dependency graph
+     */
+    String qualifiedScope(String scope) {
+        final var id = String.valueOf(this.id);
+        return id.substring(id.indexOf(':') + 1) + ':' + scope;
     }
 }
 
@@ -209,27 +243,250 @@ class DependencyJson {
     String linkage = "DYNAMIC";
     List<DependencyJson> dependencies = new ArrayList<>();
 
+    /**
+     * Adds the identifiers of all (transitive) dependencies to the dictionary.
+     * Every dependency identifier is expanded only once.
+     */
     void putAllDependencies(Map<String, Package> dictionary) {
-        for (DependencyJson dep : dependencies) {
-            if (dep.id != null) {
+        final var visited = new HashSet<String>();
+        final var stack = new ArrayDeque<DependencyJson>(dependencies);
+        while (!stack.isEmpty()) {
+            final var dep = stack.pop();
+            if (dep.id != null && visited.add(dep.id)) {
                 //noinspection ConstantConditions
                 dictionary.put(dep.id, null);
-                dep.putAllDependencies(dictionary);
+                stack.addAll(dep.dependencies);
             }
         }
     }
 
-    void registerRelations(BillOfMaterials bom, Package from, Map<String, Package> dictionary) {
-        final var me = dictionary.get(id);
-        if (me == null) {
-            return;
+    /**
+     * Registers the relations from the package to its (transitive) dependencies in depth-first order.
+     * The dependencies of a dependency are expanded only once per linkage, so the effort is linear in the
+     * number of distinct edges.
+     *
+     * @param expanded dependencies (by identifier and linkage) that were already expanded
+     */
+    void registerRelations(BillOfMaterials bom, Package from, Map<String, Package> dictionary, Set<String> expanded) {
+        final var stack = new ArrayDeque<Edge>();
+        pushEdges(stack, from, dependencies);
+        while (!stack.isEmpty()) {
+            final var edge = stack.pop();
+            final var dep = edge.to;
+            final var me = (dep.id != null) ? dictionary.get(dep.id) : null;
+            if (me == null) {
+                continue;
+            }
+            bom.addRelation(edge.from, me, LINKAGE.getOrDefault(dep.linkage, Relation.Type.DEPENDS_ON));
+            if (expanded.add(dep.id + '|' + dep.linkage)) {
+                pushEdges(stack, me, dep.dependencies);
+            }
+        }
+    }
+
+    private static void pushEdges(Deque<Edge> stack, Package from, List<DependencyJson> dependencies) {
+        final var iterator = dependencies.listIterator(dependencies.size());
+        while (iterator.hasPrevious()) {
+            stack.push(new Edge(from, iterator.previous()));
+        }
+    }
+
+    private static final class Edge {
+        final Package from;
+        final DependencyJson to;
+
+        Edge(Package from, DependencyJson to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
+
+/**
+ * Shared dependency graph of all projects of a package manager, as stored in index arrays.
+ * Nodes refer to a package by index, and are distinguished by a fragment index if the same package appears
+ * with different dependencies. Root nodes per (qualified) scope are identified by their package and fragment.
+ */
+class DependencyGraphJson {
+    private static final int[] NONE = new int[0];
+
+    final List<String> packages;
+    private final Map<String, int[]> scopeRoots = new HashMap<>();
+    private final int[] nodePackages;
+    private final Relation.Type[] nodeTypes;
+    private final Map<Long, Integer> nodeIndex = new HashMap<>();
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final BitSet expanded = new BitSet();
+
+    private DependencyGraphJson(Builder builder) {
+        packages = builder.packages;
+        final int nodes = builder.nodes.size / 2;
+        nodePackages = new int[nodes];
+        nodeTypes = new Relation.Type[nodes];
+        for (int i = 0; i < nodes; i++) {
+            final int pkg = builder.nodes.get(2 * i);
+            final int fragment = builder.nodes.get(2 * i + 1);
+            nodePackages[i] = pkg;
+            nodeTypes[i] = builder.linkages.get(i);
+            nodeIndex.putIfAbsent(key(pkg, fragment), i);
+        }
+        builder.scopes.forEach((scope, roots) -> {
+            final var indexes = new IntArray();
+            for (int i = 0; i < roots.size; i += 2) {
+                final @NullOr Integer node = nodeIndex.get(key(roots.get(i), roots.get(i + 1)));
+                if (node != null) {
+                    indexes.add(node);
+                }
+            }
+            scopeRoots.put(scope, indexes.toArray());
+        });
+
+        // Compressed sparse row adjacency, preserving the order of the edges per node
+        edgeOffsets = new int[nodes + 1];
+        final int edges = builder.edges.size / 2;
+        for (int i = 0; i < edges; i++) {
+            edgeOffsets[builder.edges.get(2 * i) + 1]++;
+        }
+        for (int i = 0; i < nodes; i++) {
+            edgeOffsets[i + 1] += edgeOffsets[i];
         }
-        //noinspection ConstantConditions
-        if (from != null) {
-            bom.addRelation(from, me, LINKAGE.getOrDefault(linkage, Relation.Type.DEPENDS_ON));
+        edgeTargets = new int[edgeOffsets[nodes]];
+        final int[] fill = Arrays.copyOf(edgeOffsets, nodes);
+        for (int i = 0; i < edges; i++) {
+            final int from = builder.edges.get(2 * i);
+            edgeTargets[fill[from]++] = builder.edges.get(2 * i + 1);
         }
-        for (var dep : dependencies) {
-            dep.registerRelations(bom, me, dictionary);
+    }
+
+    private static long key(int pkg, int fragment) {
+        return ((long) pkg << 32) | (fragment & 0xffffffffL);
+    }
+
+    /**
+     * Adds the identifiers of all packages reachable from the scope to the dictionary.
+     */
+    void putAllDependencies(String scope, Map<String, Package> dictionary) {
+        final var visited = new BitSet();
+        final var stack = new ArrayDeque<Integer>();
+        for (int root : roots(scope)) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            final int node = stack.pop();
+            if (visited.get(node)) {
+                continue;
+            }
+            visited.set(node);
+            //noinspection ConstantConditions
+            dictionary.put(packages.get(nodePackages[node]), null);
+            for (int i = edgeOffsets[node]; i < edgeOffsets[node + 1]; i++) {
+                stack.push(edgeTargets[i]);
+            }
+        }
+    }
+
+    /**
+     * Registers the relations from the project to the dependencies of the scope in depth-first order.
+     * Every node of the graph is expanded only once.
+     */
+    void registerRelations(String scope, BillOfMaterials bom, Package project, Map<String, Package> dictionary) {
+        final var stack = new ArrayDeque<int[]>();
+        final int[] roots = roots(scope);
+        for (int i = roots.length - 1; i >= 0; i--) {
+            stack.push(new int[]{-1, roots[i]});
+        }
+        while (!stack.isEmpty()) {
+            final int[] edge = stack.pop();
+            final int node = edge[1];
+            final var to = dictionary.get(packages.get(nodePackages[node]));
+            final var from = (edge[0] < 0) ? project : dictionary.get(packages.get(nodePackages[edge[0]]));
+            if (to == null || from == null) {
+                continue;
+            }
+            bom.addRelation(from, to, nodeTypes[node]);
+            if (!expanded.get(node)) {
+                expanded.set(node);
+                for (int i = edgeOffsets[node + 1] - 1; i >= edgeOffsets[node]; i--) {
+                    stack.push(new int[]{node, edgeTargets[i]});
+                }
+            }
+        }
+    }
+
+    private int[] roots(String scope) {
+        return scopeRoots.getOrDefault(scope, NONE);
+    }
+
+    static class Builder {
+        private final List<String> packages = new ArrayList<>();
+        private final Map<String, IntArray> scopes = new HashMap<>();
+        private final IntArray nodes = new IntArray();
+        private final List<Relation.Type> linkages = new ArrayList<>();
+        private final IntArray edges = new IntArray();
+
+        Builder addPackage(String id) {
+            packages.add(id);
+            return this;
+        }
+
+        Builder addRoot(String scope, int pkg, int fragment) {
+            final var roots = scopes.computeIfAbsent(scope, s -> new IntArray());
+            roots.add(pkg);
+            roots.add(fragment);
+            return this;
+        }
+
+        Builder addNode(int pkg, int fragment, String linkage) {
+            nodes.add(pkg);
+            nodes.add(fragment);
+            linkages.add(DependencyJson.LINKAGE.getOrDefault(linkage, Relation.Type.DEPENDS_ON));
+            return this;
+        }
+
+        Builder addEdge(int from, int to) {
+            edges.add(from);
+            edges.add(to);
+            return this;
+        }
+
+        DependencyGraphJson build() {
+            final int nodeCount = nodes.size / 2;
+            for (int i = 0; i < nodeCount; i++) {
+                validate(nodes.get(2 * i), packages.size(), "Node " + i + " refers to package");
+            }
+            for (int i = 0; i < edges.size / 2; i++) {
+                validate(edges.get(2 * i), nodeCount, "Edge " + i + " starts at node");
+                validate(edges.get(2 * i + 1), nodeCount, "Edge " + i + " ends at node");
+            }
+            return new DependencyGraphJson(this);
+        }
+
+        private void validate(int index, int size, String message) {
+            if (index < 0 || index >= size) {
+                throw new OrtReaderException("Dependency graph is invalid: " + message + " index " + index
+                        + " outside 0.." + (size - 1));
+            }
+        }
+    }
+
+    private static class IntArray {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
         }
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.ort;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Streaming reader for the parts of an ORT analyzer result that are needed to build a bill-of-materials.
+ * Only the configured excludes, the selected projects and the packages referenced by these projects are
+ * materialized; all other content is skipped while reading the token stream.
+ */
+class OrtParser {
+    private final ObjectMapper mapper;
+    private final Set<String> projectIds;
+    private final Function<OrtJson, @NullOr Set<String>> selector;
+    private @NullOr Set<String> referenced;
+
+    /**
+     * @param mapper     mapper for the YAML content
+     * @param projectIds identifiers of the projects to import
+     * @param selector   prunes the selected projects after they have been read, and returns the identifiers
+     *                   of the packages referenced by the remaining projects (or null if these are not known yet)
+     */
+    OrtParser(ObjectMapper mapper, Set<String> projectIds, Function<OrtJson, @NullOr Set<String>> selector) {
+        this.mapper = mapper;
+        this.projectIds = projectIds;
+        this.selector = selector;
+    }
+
+    OrtJson parse(File file) throws IOException {
+        final var ort = new OrtJson();
+        try (var parser = mapper.createParser(file)) {
+            parser.nextToken();
+            readObject(parser, name -> {
+                switch (name) {
+                    case "repository":
+                        readRepository(parser, ort);
+                        return true;
+                    case "analyzer":
+                        readAnalyzer(parser, ort);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+        }
+        return ort;
+    }
+
+    private void readRepository(JsonParser parser, OrtJson ort) throws IOException {
+        final var repository = new RepositoryJson();
+        ort.repository = repository;
+        readObject(parser, name -> {
+            if (!name.equals("config")) {
+                return false;
+            }
+            final var config = new ConfigJson();
+            repository.config = config;
+            readObject(parser, field -> {
+                if (!field.equals("excludes")) {
+                    return false;
+                }
+                config.excludes = parser.readValueAs(ExcludeJson.class);
+                return true;
+            });
+            return true;
+        });
+    }
+
+    private void readAnalyzer(JsonParser parser, OrtJson ort) throws IOException {
+        final var analyzer = new AnalyzerJson();
+        ort.analyzer = analyzer;
+        readObject(parser, name -> {
+            if (!name.equals("result")) {
+                return false;
+            }
+            final var result = new ResultJson();
+            analyzer.result = result;
+            readResult(parser, ort, result);
+            return true;
+        });
+    }
+
+    private void readResult(JsonParser parser, OrtJson ort, ResultJson result) throws IOException {
+        readObject(parser, name -> {
+            switch (name) {
+                case "projects":
+                    readArray(parser, () -> readProject(parser, result));
+                    referenced = selector.apply(ort);
+                    return true;
+                case "packages":
+                    readArray(parser, () -> {
+                        final var wrapper = readPackage(parser);
+                        if (wrapper.pkg != null && isReferenced(wrapper.pkg.id)) {
+                            result.packages.add(wrapper);
+                        }
+                    });
+                    return true;
+                case "dependency_graphs":
+                    readObject(parser, manager -> {
+                        result.dependencyGraphs.put(manager, readGraph(parser));
+                        return true;
+                    });
+                    return true;
+                case "has_issues":
+                    result.hasIssues = parser.getValueAsBoolean();
+                    return true;
+                default:
+                    return false;
+            }
+        });
+    }
+
+    /**
+     * Reads a single project, skipping the (potentially huge) dependency scopes of projects that are not
+     * selected for import.
+     */
+    private void readProject(JsonParser parser, ResultJson result) throws IOException {
+        final var node = mapper.createObjectNode();
+        readObject(parser, name -> {
+            if (name.equals("scopes") && node.has("id") && !projectIds.contains(node.get("id").asText())) {
+                return false;
+            }
+            node.set(name, mapper.readTree(parser));
+            return true;
+        });
+
+        final var project = mapper.treeToValue(node, ProjectJson.class);
+        result.detected.add(summaryOf(project));
+        if (project.id != null && projectIds.contains(project.id)) {
+            result.projects.add(project);
+        }
+    }
+
+    /**
+     * Reads a package, which is either wrapped (with curations) or listed directly in newer ORT versions.
+     */
+    private PackageWrapperJson readPackage(JsonParser parser) throws IOException {
+        final @NullOr JsonNode node = mapper.readTree(parser);
+        final var wrapper = new PackageWrapperJson();
+        if (node != null && node.isObject()) {
+            final var pkg = node.has("package") ? node.get("package") : node;
+            wrapper.pkg = mapper.treeToValue(pkg, PackageJson.class);
+        }
+        return wrapper;
+    }
+
+    /**
+     * Reads a shared dependency graph directly into index arrays.
+     */
+    private DependencyGraphJson readGraph(JsonParser parser) throws IOException {
+        final var graph = new DependencyGraphJson.Builder();
+        readObject(parser, name -> {
+            switch (name) {
+                case "packages":
+                    readArray(parser, () -> graph.addPackage(parser.getValueAsString("")));
+                    return true;
+                case "scopes":
+                    readObject(parser, scope -> {
+                        readArray(parser, () -> {
+                            final int[] root = new int[2];
+                            readObject(parser, field -> readIndex(parser, field, root, "root", "fragment"));
+                            graph.addRoot(scope, root[0], root[1]);
+                        });
+                        return true;
+                    });
+                    return true;
+                case "nodes":
+                    readArray(parser, () -> {
+                        final int[] node = new int[2];
+                        final String[] linkage = {"DYNAMIC"};
+                        readObject(parser, field -> {
+                            if (field.equals("linkage")) {
+                                linkage[0] = parser.getValueAsString("DYNAMIC");
+                                return true;
+                            }
+                            return readIndex(parser, field, node, "pkg", "fragment");
+                        });
+                        graph.addNode(node[0], node[1], linkage[0]);
+                    });
+                    return true;
+                case "edges":
+                    readArray(parser, () -> {
+                        final int[] edge = new int[2];
+                        readObject(parser, field -> readIndex(parser, field, edge, "from", "to"));
+                        graph.addEdge(edge[0], edge[1]);
+                    });
+                    return true;
+                default:
+                    return false;
+            }
+        });
+        return graph.build();
+    }
+
+    private boolean readIndex(JsonParser parser, String field, int[] values, String first, String second) throws IOException {
+        if (field.equals(first)) {
+            values[0] = parser.getValueAsInt();
+            return true;
+        }
+        if (field.equals(second)) {
+            values[1] = parser.getValueAsInt();
+            return true;
+        }
+        return false;
+    }
+
+    private ProjectJson summaryOf(ProjectJson project) {
+        final var summary = new ProjectJson();
+        summary.id = project.id;
+        summary.definitionFilePath = project.definitionFilePath;
+        return summary;
+    }
+
+    private boolean isReferenced(@NullOr String id) {
+        // Packages listed before the projects or referenced from a (later) dependency graph cannot be filtered yet
+        return referenced == null || (id != null && referenced.contains(id));
+    }
+
+    /**
+     * Dispatches all fields of the current object, skipping the values that are not consumed by the handler.
+     */
+    private void readObject(JsonParser parser, FieldHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var name = parser.getCurrentName();
+            parser.nextToken();
+            if (!handler.handle(name)) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Dispatches all elements of the current array.
+     */
+    private void readArray(JsonParser parser, ElementHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            handler.handle();
+        }
+    }
+
+    private interface FieldHandler {
+        /**
+         * @return true if the field value was consumed
+         */
+        boolean handle(String name) throws IOException;
+    }
+
+    private interface ElementHandler {
+        void handle() throws IOException;
+    }
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
 import java.util.*;
 
 /**
@@ -39,6 +40,7 @@ public class OrtReader implements BomReader {
     private final File file;
     private final Map<String, @NullOr URI> projectPackages = new HashMap<>();
     private final Map<String, List<String>> projectExcludes = new HashMap<>();
+    private boolean cleaned;
 
     public OrtReader(File file) {
         this.file = file;
@@ -71,7 +73,8 @@ public class OrtReader implements BomReader {
     public void read(BillOfMaterials bom) {
         System.out.println("Reading ORT file '" + file + "'...");
         try {
-            final var yaml = MAPPER.readValue(file, OrtJson.class);
+            cleaned = false;
+            final var yaml = new OrtParser(MAPPER, projectPackages.keySet(), this::selectPackages).parse(file);
             final var dictionary = new HashMap<String, Package>();
 
             if (yaml.analyzer == null || yaml.analyzer.result == null) {
@@ -83,7 +86,11 @@ public class OrtReader implements BomReader {
             final var result = yaml.analyzer.result;
 
             printProjects(result, projectPackages.keySet());
-            cleanupYaml(yaml, projectPackages, projectExcludes);
+            if (!cleaned) {
+                // The repository excludes were not yet available when the projects were selected
+                cleanupYaml(yaml, projectPackages, projectExcludes);
+            }
+            result.verifyProjects(projectPackages.keySet());
             registerProjects(result, bom, dictionary);
             registerPackages(result, bom, dictionary);
             registerRelations(result, bom, dictionary);
@@ -96,24 +103,45 @@ public class OrtReader implements BomReader {
     }
 
     private void printProjects(ResultJson result, Set<String> projectIds) {
-        System.out.println("Detected " + result.projects.size() + " project(s):");
-        result.projects.forEach(project -> {
+        System.out.println("Detected " + result.detected.size() + " project(s):");
+        result.detected.forEach(project -> {
             final var tick = projectIds.contains(project.id) ? "+" : "-";
             final var from = (project.definitionFilePath != null) ? " from '" + project.definitionFilePath + "'" : "";
             System.out.println(tick + " '" + project.id + "'" + from);
         });
     }
 
-    private void cleanupYaml(OrtJson yaml, Map<String, URI> projectPackages, Map<String, List<String>> projectExcludes) {
-        if (yaml.repository == null) {
-            return;
+    /**
+     * Prunes the selected projects as soon as they are read, to avoid reading unreferenced packages.
+     * (If the repository excludes follow the analyzer result, pruning is postponed until the file is read.)
+     *
+     * @return identifiers of all packages referenced by the selected projects, or null if (some of) these
+     * are defined by a dependency graph that is not read yet
+     */
+    private @NullOr Set<String> selectPackages(OrtJson yaml) {
+        cleanupYaml(yaml, projectPackages, projectExcludes);
+        //noinspection ConstantConditions
+        final var result = yaml.analyzer.result;
+        assert result != null;
+        if (result.projects.stream().anyMatch(p -> !p.scopeNames.isEmpty())) {
+            return null;
         }
+        final var referenced = new HashMap<String, Package>();
+        result.projects.forEach(p -> p.scopes.forEach(scope -> scope.putAllDependencies(referenced)));
+        return referenced.keySet();
+    }
+
+    private void cleanupYaml(OrtJson yaml, Map<String, URI> projectPackages, Map<String, List<String>> projectExcludes) {
         //noinspection ConstantConditions
         final var result = yaml.analyzer.result;
-        final var excludedPaths = yaml.repository.getExcludePaths();
-        final var excludedScopes = yaml.repository.getExcludeScopes();
+        if (result == null) {
+            return;
+        }
+        final var repository = yaml.repository;
+        final Set<PathMatcher> excludedPaths = (repository != null) ? repository.getExcludePaths() : Set.of();
+        final Set<PathMatcher> excludedScopes = (repository != null) ? repository.getExcludeScopes() : Set.of();
 
-        assert result != null;
+        cleaned = (repository != null);
         result.removeProjects(excludedPaths);
         result.keepProjects(projectPackages.keySet());
         result.updateProjectPackages(projectPackages);
@@ -140,6 +168,10 @@ public class OrtReader implements BomReader {
                 System.out.println("+ Adding scope '" + scope.name + "'");
                 scope.putAllDependencies(dictionary);
             });
+            result.graphFor(p).ifPresent(graph -> p.scopeNames.forEach(scope -> {
+                System.out.println("+ Adding scope '" + scope + "'");
+                graph.putAllDependencies(p.qualifiedScope(scope), dictionary);
+            }));
         });
     }
 
@@ -157,11 +189,15 @@ public class OrtReader implements BomReader {
     }
 
     private void registerRelations(ResultJson result, BillOfMaterials bom, HashMap<String, Package> dictionary) {
+        final var expanded = new HashSet<String>();
         result.projects.forEach(p -> {
             final var project = dictionary.get(p.id);
-            p.scopes.stream()
-                    .flatMap(scope -> scope.dependencies.stream())
-                    .forEach(dep -> dep.registerRelations(bom, project, dictionary));
+            if (project == null) {
+                return;
+            }
+            p.scopes.forEach(scope -> scope.registerRelations(bom, project, dictionary, expanded));
+            result.graphFor(p).ifPresent(graph -> p.scopeNames.forEach(scope ->
+                    graph.registerRelations(p.qualifiedScope(scope), bom, project, dictionary)));
         });
     }
 }
@@ -6,6 +6,7 @@
 package com.philips.research.spdxbuilder.persistence.spdx;
 
 import com.github.packageurl.PackageURL;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 
 public class ExternalReference {
     private final String category;
@@ -15,7 +16,7 @@ public class ExternalReference {
     public ExternalReference(PackageURL purl) {
         this.category = "PACKAGE-MANAGER";
         this.type = "purl";
-        this.locator = purl.canonicalize();
+        this.locator = PurlFactory.canonical(purl);
     }
 
     @Override
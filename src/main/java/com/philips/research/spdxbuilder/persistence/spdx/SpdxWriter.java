@@ -5,11 +5,13 @@
 
 package com.philips.research.spdxbuilder.persistence.spdx;
 
-import com.philips.research.spdxbuilder.core.BomProcessor;
+import com.philips.research.spdxbuilder.core.StreamingBomProcessor;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.License;
 import com.philips.research.spdxbuilder.core.domain.LicenseDictionary;
 import com.philips.research.spdxbuilder.core.domain.Package;
 import com.philips.research.spdxbuilder.core.domain.Relation;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -19,20 +21,27 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Converts a bill-of-materials to an SPDX file.
+ * When streaming, package relationships are written after the last package.
+ * Custom licenses are renumbered in order of their first appearance in the document, because the identifiers
+ * of the license dictionary depend on the order in which (concurrent) enhancement encountered them.
  */
-public class SpdxWriter implements BomProcessor, AutoCloseable {
+public class SpdxWriter implements StreamingBomProcessor, AutoCloseable {
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
             .withZone(ZoneId.of("UTC"));
     private static final List<String> SUPPORTED_HASH_KEYS =
             List.of("SHA1", "SHA224", "SHA256", "SHA384", "SHA512", "MD2", "MD4", "MD5", "MD6");
+    private static final Pattern LICENSE_REF = Pattern.compile("LicenseRef-\\w+");
 
     private final OutputStream stream;
     private final Map<Package, SpdxRef> identifiers = new LinkedHashMap<>();
+    private final Map<String, String> licenseRefs = new LinkedHashMap<>();
 
+    private @NullOr TagValueDocument streamed;
     private int nextId = 1;
 
     public SpdxWriter(OutputStream stream) {
@@ -46,12 +55,52 @@ public class SpdxWriter implements BomProcessor, AutoCloseable {
             generatePackageIdentifiers(bom);
             writePackages(doc, bom);
             writeCustomLicenses(doc);
-            System.out.println("Total: " + bom.getPackages().size() + " packages and " + bom.getRelations().size() + " relations");
+            printTotals(bom);
         } catch (IOException | DateTimeException e) {
             throw new SpdxException("Could not write SPDX file: " + e.getMessage());
         }
     }
 
+    @Override
+    public void processPackage(BillOfMaterials bom, Package pkg) {
+        try {
+            if (streamed == null) {
+                streamed = new TagValueDocument(this.stream);
+                writeDocumentInformation(streamed, bom);
+            }
+            if (!identifiers.containsKey(pkg)) {
+                identifierFor(pkg);
+                writePackageInformation(streamed, pkg, bom);
+                streamed.addEmptyLine();
+            }
+        } catch (IOException | DateTimeException e) {
+            throw new SpdxException("Could not write SPDX file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void finish(BillOfMaterials bom) {
+        if (streamed == null) {
+            process(bom);
+            return;
+        }
+        try (final var doc = streamed) {
+            doc.addComment("Relationships");
+            for (Package pkg : new ArrayList<>(identifiers.keySet())) {
+                addPackageRelationships(doc, pkg, bom);
+            }
+            doc.addEmptyLine();
+            writeCustomLicenses(doc);
+            printTotals(bom);
+        } catch (IOException e) {
+            throw new SpdxException("Could not write SPDX file: " + e.getMessage());
+        }
+    }
+
+    private void printTotals(BillOfMaterials bom) {
+        System.out.println("Total: " + bom.getPackages().size() + " packages and " + bom.getRelations().size() + " relations");
+    }
+
     @Override
     public void close() throws IOException {
         this.stream.close();
@@ -90,6 +139,12 @@ public class SpdxWriter implements BomProcessor, AutoCloseable {
     }
 
     private void writePackage(TagValueDocument doc, Package pkg, BillOfMaterials bom) throws IOException {
+        writePackageInformation(doc, pkg, bom);
+        addPackageRelationships(doc, pkg, bom);
+        doc.addEmptyLine();
+    }
+
+    private void writePackageInformation(TagValueDocument doc, Package pkg, BillOfMaterials bom) throws IOException {
         doc.addComment("Start of package " + pkg);
         doc.addValue("PackageName", pkg.getFullName());
         doc.addValue("SPDXID", identifierFor(pkg));
@@ -115,28 +170,24 @@ public class SpdxWriter implements BomProcessor, AutoCloseable {
                 doc.addValue("PackageChecksum", key + ": " + hex);
             }
         }
-        doc.addValue("PackageLicenseConcluded", pkg.getConcludedLicense());
-        doc.addValue("PackageLicenseDeclared", pkg.getDeclaredLicense());
+        doc.addValue("PackageLicenseConcluded", pkg.getConcludedLicense().map(this::documentLicense));
+        doc.addValue("PackageLicenseDeclared", pkg.getDeclaredLicense().map(this::documentLicense));
         if (pkg.getDeclaredLicense().isEmpty() && pkg.getConcludedLicense().isEmpty()) {
             System.err.println("WARNING: No license declared for package " + pkg);
         }
         for (var license : pkg.getDetectedLicenses()) {
-            doc.addValue("PackageLicenseInfoFromFiles", license);
+            doc.addValue("PackageLicenseInfoFromFiles", documentLicense(license));
         }
         doc.addValue("FilesAnalyzed", !pkg.getDetectedLicenses().isEmpty());
         doc.addValue("PackageCopyrightText", pkg.getCopyright());
-        addPackageRelationships(doc, pkg, bom);
-        doc.addEmptyLine();
     }
 
     private void addPackageRelationships(TagValueDocument doc, Package pkg, BillOfMaterials bom) throws IOException {
-        for (Relation rel : bom.getRelations()) {
-            if (rel.getFrom() == pkg) {
-                String value = String.format(relationFormat(rel.getType()),
-                        identifierFor(rel.getFrom()),
-                        identifierFor(rel.getTo()));
-                doc.addValue("Relationship", value);
-            }
+        for (Relation rel : bom.getRelationsFrom(pkg)) {
+            String value = String.format(relationFormat(rel.getType()),
+                    identifierFor(rel.getFrom()),
+                    identifierFor(rel.getTo()));
+            doc.addValue("Relationship", value);
         }
     }
 
@@ -161,14 +212,27 @@ public class SpdxWriter implements BomProcessor, AutoCloseable {
     }
 
     private void writeCustomLicenses(TagValueDocument doc) throws IOException {
-        final var dictionary = LicenseDictionary.getInstance().getCustomLicenses();
-        final var keys = dictionary.keySet().stream().sorted().collect(Collectors.toList());
-        for (var key : keys) {
-            doc.addValue("LicenseID", key);
-            doc.addValue("LicenseName", dictionary.get(key));
+        final var dictionary = LicenseDictionary.getInstance();
+        for (var entry : licenseRefs.entrySet()) {
+            doc.addValue("LicenseID", entry.getValue());
+            doc.addValue("LicenseName", dictionary.getCustomLicense(entry.getKey()).orElse(""));
         }
     }
 
+    /**
+     * @return license expression with custom license identifiers replaced by their document identifiers
+     */
+    private String documentLicense(License license) {
+        final var dictionary = LicenseDictionary.getInstance();
+        return LICENSE_REF.matcher(license.toString()).replaceAll(match -> {
+            final var ref = match.group();
+            final var replacement = dictionary.getCustomLicense(ref).isPresent()
+                    ? licenseRefs.computeIfAbsent(ref, r -> "LicenseRef-" + (licenseRefs.size() + 1))
+                    : ref;
+            return Matcher.quoteReplacement(replacement);
+        });
+    }
+
     private SpdxRef identifierFor(Package pkg) {
         return identifiers.computeIfAbsent(pkg, (o) -> new SpdxRef(Integer.toString(nextId++)));
     }
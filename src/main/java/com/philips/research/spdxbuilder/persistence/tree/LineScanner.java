@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Hand-written replacement for the regular expressions that interpret the lines of a tree format.
+ */
+interface LineScanner {
+    /**
+     * @return index of the first character after any format-specific prefix
+     */
+    int start(CharSequence line);
+
+    /**
+     * @param from index of the first character after the format-specific prefix
+     * @return index of the first identifier character, or the length of the line if none
+     */
+    int indent(CharSequence line, int from);
+
+    /**
+     * Extracts the package coordinates from the identifier part of a line.
+     *
+     * @param name   line starting at the first identifier character
+     * @param result receives the extracted coordinates
+     * @return false if the line is not in a recognized form, and must be interpreted by the regular expressions
+     */
+    boolean scan(String name, Coordinates result);
+
+    /**
+     * Reusable holder for the coordinates of a package.
+     */
+    final class Coordinates {
+        /**
+         * Type identifier, or null if the type is to be derived from the format.
+         */
+        @NullOr String type;
+        String namespace = "";
+        String name = "";
+        String version = "";
+
+        void set(@NullOr String type, String namespace, String name, String version) {
+            this.type = type;
+            this.namespace = namespace;
+            this.name = name;
+            this.version = version;
+        }
+    }
+}
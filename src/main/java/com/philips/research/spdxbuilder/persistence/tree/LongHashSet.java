@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import java.util.Arrays;
+
+/**
+ * Set of (non-negative) primitive long values.
+ */
+final class LongHashSet {
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] values = newTable(INITIAL_CAPACITY);
+    private int size;
+
+    private static long[] newTable(int capacity) {
+        final var table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /**
+     * @return true if the value was not yet in the set
+     */
+    boolean add(long value) {
+        if (2 * (size + 1) > values.length) {
+            resize();
+        }
+        final int mask = values.length - 1;
+        int i = hash(value) & mask;
+        while (values[i] != EMPTY) {
+            if (values[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        values[i] = value;
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        final var old = values;
+        values = newTable(2 * old.length);
+        size = 0;
+        for (long value : old) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    private static int hash(long value) {
+        final long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
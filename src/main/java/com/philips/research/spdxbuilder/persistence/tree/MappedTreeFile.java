@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped UTF-8 tree file that splits lines at the byte level.
+ * Lines holding only ASCII characters are returned as views on the mapped file content, so only the
+ * fragments that are actually interpreted are ever copied into strings.
+ */
+final class MappedTreeFile implements TreeLines {
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer buffer;
+    private long base;
+    private int position;
+
+    MappedTreeFile(File file) throws IOException {
+        this(file, WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize maximum number of bytes mapped at once
+     */
+    MappedTreeFile(File file, int windowSize) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        size = channel.size();
+        this.windowSize = windowSize;
+        buffer = map(0);
+    }
+
+    private MappedByteBuffer map(long offset) throws IOException {
+        base = offset;
+        position = 0;
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, size - offset));
+    }
+
+    @Override
+    public @NullOr CharSequence next() throws IOException {
+        if (base + position >= size) {
+            return null;
+        }
+        while (true) {
+            int limit = buffer.limit();
+            boolean isAscii = true;
+            for (int i = position; i < limit; i++) {
+                final byte b = buffer.get(i);
+                if (b == '\n' || b == '\r') {
+                    final var line = line(position, i, isAscii);
+                    if (i + 1 == limit && base + limit < size) {
+                        // Line terminator might continue in the next window
+                        buffer = map(base + i);
+                        i = 0;
+                        limit = buffer.limit();
+                    }
+                    position = (b == '\r' && i + 1 < limit && buffer.get(i + 1) == '\n') ? i + 2 : i + 1;
+                    return line;
+                }
+                isAscii &= (b >= 0);
+            }
+            if (base + limit >= size) {
+                final var line = line(position, limit, isAscii);
+                position = limit;
+                return line;
+            }
+            if (position == 0) {
+                throw new TreeException("Line exceeds " + windowSize + " bytes");
+            }
+            // Line (or line terminator) continues beyond the mapped window
+            buffer = map(base + position);
+        }
+    }
+
+    private CharSequence line(int from, int to, boolean isAscii) {
+        if (isAscii) {
+            return new AsciiSequence(buffer, from, to - from);
+        }
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(from).limit(to);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Character view on a range of ASCII bytes.
+     */
+    static final class AsciiSequence implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiSequence(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) bytes.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("[" + start + "," + end + ") of " + length);
+            }
+            return new AsciiSequence(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            final var array = new byte[length];
+            bytes.duplicate().position(offset).get(array);
+            return new String(array, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
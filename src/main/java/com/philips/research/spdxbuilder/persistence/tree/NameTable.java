@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Arrays;
+
+/**
+ * Hash table with string keys that can be looked up by any character sequence, without creating a string.
+ */
+final class NameTable<V> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return the value for the key, or null if the key is unknown
+     */
+    @SuppressWarnings("unchecked")
+    @NullOr V get(CharSequence key) {
+        final int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (contentEquals(keys[i], key)) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    void put(String key, V value) {
+        if (2 * (size + 1) > keys.length) {
+            resize(2 * keys.length);
+        }
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != null && !keys[i].equals(key)) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == null) {
+            size++;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the hash of the characters, which for strings matches their (cached) hash code
+     */
+    private static int hash(CharSequence chars) {
+        int hash;
+        if (chars instanceof String) {
+            hash = chars.hashCode();
+        } else {
+            hash = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                hash = 31 * hash + chars.charAt(i);
+            }
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean contentEquals(String string, CharSequence chars) {
+        if (string.length() != chars.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) != chars.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
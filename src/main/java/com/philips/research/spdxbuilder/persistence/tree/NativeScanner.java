@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Single-pass character scanners for the common built-in tree formats.
+ * Every scanner produces exactly the values of the regular expressions in the built-in format definition, and
+ * rejects any line of which it cannot guarantee this.
+ */
+enum NativeScanner implements LineScanner {
+    /**
+     * Lines like "<code>[INFO] +- group:artifact:jar:version:scope</code>".
+     */
+    MAVEN("maven") {
+        private static final String PREFIX = "[INFO]";
+
+        @Override
+        public int start(CharSequence line) {
+            final int length = PREFIX.length();
+            if (line.length() > length && startsWith(line, PREFIX) && isSpace(line.charAt(length))) {
+                return length + 1;
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean scan(String name, Coordinates result) {
+            final int first = name.indexOf(':');
+            final int second = (first >= 0) ? name.indexOf(':', first + 1) : -1;
+            final int third = (second >= 0) ? name.indexOf(':', second + 1) : -1;
+            if (third < 0) {
+                return false;
+            }
+            final int fourth = name.indexOf(':', third + 1);
+            final int end = (fourth >= 0) ? fourth : name.length();
+            result.set(null, name.substring(0, first), name.substring(first + 1, second), name.substring(third + 1, end));
+            return true;
+        }
+    },
+    /**
+     * Lines like "<code>+--- group:artifact:version -> resolved (*)</code>".
+     */
+    GRADLE("gradle") {
+        private static final String ARROW = " -> ";
+
+        @Override
+        public boolean scan(String name, Coordinates result) {
+            var end = name.length();
+            final int marker = name.indexOf(" (");
+            if (marker >= 0) {
+                if (marker == 0 || !name.endsWith(")") || end - marker < 4) {
+                    return false;
+                }
+                end = marker;
+            }
+            final int arrow = name.indexOf(ARROW);
+            if (arrow >= end) {
+                return false;
+            }
+            final int idEnd = (arrow >= 0) ? arrow : end;
+            final int first = name.indexOf(':');
+            final int second = (first >= 0) ? name.indexOf(':', first + 1) : -1;
+            if (first <= 0 || second <= first + 1 || second + 1 >= idEnd
+                    || !isToken(name, 0, first) || !isToken(name, first + 1, second) || !isToken(name, second + 1, idEnd)) {
+                return false;
+            }
+            if (arrow >= 0 && (arrow + ARROW.length() >= end || !isToken(name, arrow + ARROW.length(), end))) {
+                return false;
+            }
+            final var version = (arrow >= 0)
+                    ? name.substring(arrow + ARROW.length(), end)
+                    : name.substring(second + 1, idEnd);
+            result.set(null, name.substring(0, first), name.substring(first + 1, second), version);
+            return true;
+        }
+
+        private boolean isToken(String string, int from, int to) {
+            for (int i = from; i < to; i++) {
+                final char ch = string.charAt(i);
+                if (!isWord(ch) && ch != '.' && ch != '-' && ch != '+') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    },
+    /**
+     * Lines like "<code>├─┬ @scope/name@version deduped</code>".
+     */
+    NPM("npm") {
+        @Override
+        public int indent(CharSequence line, int from) {
+            for (int i = from; i < line.length(); i++) {
+                final char ch = line.charAt(i);
+                if (ch == '@' || isWord(ch)) {
+                    return i;
+                }
+            }
+            return line.length();
+        }
+
+        @Override
+        public boolean scan(String name, Coordinates result) {
+            final int space = indexOfSpace(name, 0);
+            final int coreEnd = (space >= 0) ? space : name.length();
+            if (space >= 0) {
+                // Accept a single trailing word (like "deduped")
+                final int suffix = space + 1;
+                if (suffix >= name.length() || indexOfSpace(name, suffix) >= 0 || name.indexOf('@', suffix) >= 0) {
+                    return false;
+                }
+            }
+            final int at = name.lastIndexOf('@', coreEnd - 1);
+            if (at <= 0 || at + 1 >= coreEnd || name.lastIndexOf('/', coreEnd - 1) > at) {
+                return false;
+            }
+            final int slash = name.lastIndexOf('/', at - 1);
+            if (slash == 0 || slash + 1 >= at) {
+                return false;
+            }
+            final var namespace = (slash > 0) ? name.substring(0, slash) : "";
+            result.set(null, namespace, name.substring(slash + 1, at), name.substring(at + 1, coreEnd));
+            return true;
+        }
+    },
+    /**
+     * Lines like "<code>pkg:type/namespace/name@version [relationship]</code>".
+     */
+    PURL("purl") {
+        private static final String SCHEME = "pkg:";
+
+        @Override
+        public boolean scan(String name, Coordinates result) {
+            final int space = indexOfSpace(name, 0);
+            final int end = (space >= 0) ? space : name.length();
+            if (!name.startsWith(SCHEME)
+                    || name.indexOf('/', end) >= 0 || name.indexOf('@', end) >= 0 || hasEscapes(name, end)) {
+                return false;
+            }
+            final int type = name.indexOf('/', SCHEME.length());
+            final int at = name.indexOf('@');
+            if (type <= SCHEME.length() || at <= type + 1 || at + 1 >= end
+                    || name.indexOf('@', at + 1) >= 0 || name.indexOf('/', at) >= 0) {
+                return false;
+            }
+            final int slash = name.indexOf('/', type + 1);
+            if (slash < 0) {
+                result.set(name.substring(SCHEME.length(), type), "", name.substring(type + 1, at), name.substring(at + 1, end));
+                return true;
+            }
+            // Only a single namespace segment is recognized
+            if (slash == type + 1 || slash + 1 >= at || name.indexOf('/', slash + 1) >= 0) {
+                return false;
+            }
+            result.set(name.substring(SCHEME.length(), type), name.substring(type + 1, slash),
+                    name.substring(slash + 1, at), name.substring(at + 1, end));
+            return true;
+        }
+
+        private boolean hasEscapes(String name, int end) {
+            for (int i = 0; i < end; i++) {
+                final char ch = name.charAt(i);
+                if (ch == '%' || ch == '?' || ch == '#') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private final String format;
+
+    NativeScanner(String format) {
+        this.format = format;
+    }
+
+    /**
+     * @return the scanner for the named built-in format (if any)
+     */
+    static Optional<NativeScanner> of(String format) {
+        return Arrays.stream(values())
+                .filter(scanner -> scanner.format.equals(format))
+                .findFirst();
+    }
+
+    private static boolean startsWith(CharSequence string, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (string.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWord(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+    }
+
+    private static boolean isSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == 0x0B || ch == '\f' || ch == '\r';
+    }
+
+    private static int indexOfSpace(String string, int from) {
+        for (int i = from; i < string.length(); i++) {
+            if (isSpace(string.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int start(CharSequence line) {
+        return 0;
+    }
+
+    @Override
+    public int indent(CharSequence line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (isWord(line.charAt(i))) {
+                return i;
+            }
+        }
+        return line.length();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import com.philips.research.spdxbuilder.core.domain.Relation;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, precompiled settings for interpreting the lines of a tree format.
+ */
+final class TreeFormat {
+    static final Pattern ID_PATTERN = Pattern.compile("^([\\w-\\.]+):([\\w-\\.]+):([\\w-\\.]+)");
+    static final TreeFormat DEFAULT = new Builder().build();
+
+    final @NullOr Pattern startSection;
+    final @NullOr Pattern endSection;
+    final @NullOr Pattern cleanup;
+    final Pattern identifier;
+    final @NullOr Pattern skip;
+    final @NullOr Pattern internal;
+    final @NullOr Pattern repeated;
+    final @NullOr Mask type;
+    final Map<String, String> typeMapping;
+    final Mask namespace;
+    final Mask name;
+    final Mask version;
+    final @NullOr Mask relationship;
+    final Map<String, Relation.Type> relationshipMapping;
+    /**
+     * Native replacement for the regular expressions, if the format is not customized.
+     */
+    final @NullOr LineScanner scanner;
+    /**
+     * Distinct regular expressions of the namespace, name and version masks.
+     */
+    final List<Pattern> coordinatePatterns;
+    /**
+     * Index into the coordinate patterns of the namespace, name and version masks.
+     */
+    final int[] coordinateIndex;
+
+    private TreeFormat(Builder builder) {
+        startSection = builder.startSection;
+        endSection = builder.endSection;
+        cleanup = builder.cleanup;
+        identifier = builder.identifier;
+        skip = builder.skip;
+        internal = builder.internal;
+        repeated = builder.repeated;
+        type = builder.type;
+        typeMapping = builder.typeMapping;
+        namespace = builder.namespace;
+        name = builder.name;
+        version = builder.version;
+        relationship = builder.relationship;
+        relationshipMapping = builder.relationshipMapping;
+        scanner = builder.scanner;
+
+        final var patterns = new ArrayList<Pattern>();
+        final var masks = List.of(namespace, name, version);
+        coordinateIndex = new int[masks.size()];
+        for (int i = 0; i < masks.size(); i++) {
+            final var pattern = masks.get(i).pattern;
+            int index = indexOf(patterns, pattern);
+            if (index < 0) {
+                index = patterns.size();
+                patterns.add(pattern);
+            }
+            coordinateIndex[i] = index;
+        }
+        coordinatePatterns = List.copyOf(patterns);
+    }
+
+    private static int indexOf(List<Pattern> patterns, Pattern pattern) {
+        for (int i = 0; i < patterns.size(); i++) {
+            final var other = patterns.get(i);
+            if (other.pattern().equals(pattern.pattern()) && other.flags() == pattern.flags()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Regular expression to extract a value from a line, including the substitutions on the extracted value.
+     */
+    static final class Mask {
+        final Pattern pattern;
+        final int group;
+        final List<Replacement> replace;
+
+        Mask(Pattern pattern, int group, List<Replacement> replace) {
+            this.pattern = pattern;
+            this.group = group;
+            this.replace = replace;
+        }
+
+        Mask withReplace(Map<String, String> mapping) {
+            final var replacements = mapping.entrySet().stream()
+                    .map(e -> new Replacement(Pattern.compile(e.getKey()), e.getValue()))
+                    .collect(Collectors.toList());
+            return new Mask(pattern, group, List.copyOf(replacements));
+        }
+    }
+
+    static final class Replacement {
+        final Pattern pattern;
+        final String replacement;
+
+        Replacement(Pattern pattern, String replacement) {
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+    }
+
+    static final class Builder {
+        private @NullOr Pattern startSection;
+        private @NullOr Pattern endSection;
+        private @NullOr Pattern cleanup;
+        private Pattern identifier = Pattern.compile("\\w");
+        private @NullOr Pattern skip;
+        private @NullOr Pattern internal;
+        private @NullOr Pattern repeated;
+        private @NullOr Mask type;
+        private Map<String, String> typeMapping = Map.of();
+        private Mask namespace = new Mask(ID_PATTERN, 1, List.of());
+        private Mask name = new Mask(ID_PATTERN, 2, List.of());
+        private Mask version = new Mask(ID_PATTERN, 3, List.of());
+        private @NullOr Mask relationship;
+        private Map<String, Relation.Type> relationshipMapping = Map.of();
+        private @NullOr LineScanner scanner;
+
+        Builder() {
+        }
+
+        private Builder(TreeFormat format) {
+            startSection = format.startSection;
+            endSection = format.endSection;
+            cleanup = format.cleanup;
+            identifier = format.identifier;
+            skip = format.skip;
+            internal = format.internal;
+            repeated = format.repeated;
+            type = format.type;
+            typeMapping = format.typeMapping;
+            namespace = format.namespace;
+            name = format.name;
+            version = format.version;
+            relationship = format.relationship;
+            relationshipMapping = format.relationshipMapping;
+            scanner = format.scanner;
+        }
+
+        /**
+         * Replaces the regular expressions for cleanup, indentation and package coordinates by a native scanner.
+         * Any subsequent modification of these settings disables the scanner again.
+         */
+        Builder withScanner(@NullOr LineScanner scanner) {
+            this.scanner = scanner;
+            return this;
+        }
+
+        Builder withStartSection(String regEx) {
+            startSection = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withEndSection(String regEx) {
+            endSection = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withCleanup(String regEx) {
+            scanner = null;
+            cleanup = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withIdentifier(String regEx) {
+            scanner = null;
+            identifier = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withSkip(String regEx) {
+            skip = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withInternal(String regEx) {
+            internal = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withRepeated(String regEx) {
+            repeated = Pattern.compile(regEx);
+            return this;
+        }
+
+        Builder withTypes(Map<String, String> mapping) {
+            typeMapping = mapping;
+            return this;
+        }
+
+        Builder withType(String regEx, int group) {
+            scanner = null;
+            type = new Mask(Pattern.compile(regEx), group, List.of());
+            return this;
+        }
+
+        Builder withNamespace(String regEx, int group) {
+            scanner = null;
+            namespace = new Mask(Pattern.compile(regEx), group, namespace.replace);
+            return this;
+        }
+
+        Builder withNamespaceReplace(Map<String, String> mapping) {
+            scanner = null;
+            namespace = namespace.withReplace(mapping);
+            return this;
+        }
+
+        Builder withName(String regEx, int group) {
+            scanner = null;
+            name = new Mask(Pattern.compile(regEx), group, name.replace);
+            return this;
+        }
+
+        Builder withNameReplace(Map<String, String> mapping) {
+            scanner = null;
+            name = name.withReplace(mapping);
+            return this;
+        }
+
+        Builder withVersion(String regEx, int group) {
+            scanner = null;
+            version = new Mask(Pattern.compile(regEx), group, version.replace);
+            return this;
+        }
+
+        Builder withVersionReplace(Map<String, String> mapping) {
+            scanner = null;
+            version = version.withReplace(mapping);
+            return this;
+        }
+
+        Builder withRelationships(Map<String, String> mapping) {
+            relationshipMapping = mapping.entrySet().stream()
+                    .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> relationType(e.getValue())));
+            return this;
+        }
+
+        private Relation.Type relationType(String string) {
+            try {
+                return Relation.Type.valueOf(string.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                final var types = Arrays.stream(Relation.Type.values()).map(Enum::name).collect(Collectors.toList());
+                throw new TreeException("Relationship type '" + string + "' is not one of " + types);
+            }
+        }
+
+        Builder withRelationship(String regEx, int group) {
+            relationship = new Mask(Pattern.compile(regEx), group, List.of());
+            return this;
+        }
+
+        TreeFormat build() {
+            return new TreeFormat(this);
+        }
+    }
+}
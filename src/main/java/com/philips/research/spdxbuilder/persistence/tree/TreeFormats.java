@@ -6,6 +6,7 @@
 package com.philips.research.spdxbuilder.persistence.tree;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
@@ -16,10 +17,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -32,6 +31,7 @@ public class TreeFormats {
             .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.NON_PRIVATE)
             .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
     private final List<FormatDefinition> formats;
+    private final Map<String, TreeFormat> plans = new ConcurrentHashMap<>();
 
     public TreeFormats() {
         formats = readFormats();
@@ -39,7 +39,9 @@ public class TreeFormats {
 
     private List<FormatDefinition> readFormats() {
         try (final InputStream stream = TreeFormats.class.getResourceAsStream(FORMATS_FILE)) {
-            return MAPPER.readValue(stream, Formats.class).formats;
+            final var formats = MAPPER.readValue(stream, Formats.class).formats;
+            formats.forEach(fmt -> fmt.builtIn = true);
+            return formats;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load tree formats", e);
         }
@@ -49,6 +51,7 @@ public class TreeFormats {
         try (final InputStream stream = new FileInputStream(file)) {
             final var definition = MAPPER.readValue(stream, Formats.class);
             this.formats.addAll(definition.formats);
+            plans.clear();
             return this;
         } catch (IOException e) {
             throw new TreeException("Failed to load custom formats: " + e.getMessage());
@@ -56,14 +59,39 @@ public class TreeFormats {
     }
 
     void configure(TreeParser parser, String format) {
+        parser.withFormat(plan(format));
+    }
+
+    /**
+     * @return the compiled settings for the named format, including the settings of its parent formats
+     */
+    TreeFormat plan(String format) {
+        final @NullOr TreeFormat plan = plans.get(format);
+        if (plan != null) {
+            return plan;
+        }
+        final var compiled = compile(format, new HashSet<>());
+        plans.putIfAbsent(format, compiled);
+        return compiled;
+    }
+
+    private TreeFormat compile(String format, Set<String> visited) {
+        if (!visited.add(format)) {
+            throw new TreeException("Circular parent definition for tree format: " + format);
+        }
         final var definition = formats.stream()
                 .filter(fmt -> format.equals(fmt.format))
                 .findFirst()
                 .orElseThrow(() -> new TreeException("Undefined tree format: " + format));
-        if (definition.parent != null) {
-            configure(parser, definition.parent);
+        final var parent = (definition.parent != null)
+                ? compile(definition.parent, visited)
+                : TreeFormat.DEFAULT;
+        final var builder = parent.toBuilder();
+        definition.format(builder);
+        if (definition.builtIn) {
+            NativeScanner.of(format).ifPresent(builder::withScanner);
         }
-        definition.format(parser);
+        return builder.build();
     }
 
     public void printFormats() {
@@ -95,6 +123,7 @@ public class TreeFormats {
         @NullOr String cleanup;
         @NullOr String skip;
         @NullOr String internal;
+        @NullOr String repeated;
         @NullOr String identifier;
         @NullOr MatchMask namespace;
         @NullOr MatchMask name;
@@ -103,27 +132,30 @@ public class TreeFormats {
         @NullOr String end;
         @NullOr MatchMask relationship;
         @NullOr Map<String, String> relationships;
-
-        void format(TreeParser parser) {
-            applyMask(type, parser::withType);
-            applyMapping(types, parser::withTypes);
-
-            applyRegex(cleanup, parser::withCleanup);
-            applyRegex(skip, parser::withSkip);
-            applyRegex(identifier, parser::withIdentifier);
-            applyRegex(internal, parser::withInternal);
-            applyMask(namespace, parser::withNamespace);
-            applyMask(name, parser::withName);
-            applyMask(version, parser::withVersion);
-            applyReplace(namespace, parser::withNamespaceReplace);
-            applyReplace(name, parser::withNameReplace);
-            applyReplace(version, parser::withVersionReplace);
-
-            applyRegex(start, parser::withStartSection);
-            applyRegex(end, parser::withEndSection);
-
-            applyMask(relationship, parser::withRelationship);
-            applyMapping(relationships, parser::withRelationships);
+        @JsonIgnore
+        boolean builtIn;
+
+        void format(TreeFormat.Builder builder) {
+            applyMask(type, builder::withType);
+            applyMapping(types, builder::withTypes);
+
+            applyRegex(cleanup, builder::withCleanup);
+            applyRegex(skip, builder::withSkip);
+            applyRegex(identifier, builder::withIdentifier);
+            applyRegex(internal, builder::withInternal);
+            applyRegex(repeated, builder::withRepeated);
+            applyMask(namespace, builder::withNamespace);
+            applyMask(name, builder::withName);
+            applyMask(version, builder::withVersion);
+            applyReplace(namespace, builder::withNamespaceReplace);
+            applyReplace(name, builder::withNameReplace);
+            applyReplace(version, builder::withVersionReplace);
+
+            applyRegex(start, builder::withStartSection);
+            applyRegex(end, builder::withEndSection);
+
+            applyMask(relationship, builder::withRelationship);
+            applyMapping(relationships, builder::withRelationships);
         }
 
         private void applyRegex(@NullOr String regex, Consumer<String> property) {
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of the consecutive lines of a textual tree.
+ */
+interface TreeLines extends Closeable {
+    static TreeLines of(BufferedReader reader) {
+        return new TreeLines() {
+            @Override
+            public @NullOr CharSequence next() throws IOException {
+                return reader.readLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * @return the next line (without line terminator), or null at the end of the input
+     */
+    @NullOr CharSequence next() throws IOException;
+}
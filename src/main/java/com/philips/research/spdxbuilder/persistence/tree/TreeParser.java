@@ -9,67 +9,51 @@ import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 import com.philips.research.spdxbuilder.core.domain.PurlGlob;
 import com.philips.research.spdxbuilder.core.domain.Relation;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Parses consecutive lines of a textual tree into unique packages and their relations.
  */
 class TreeParser {
-    private static final Pattern ID_PATTERN = compile("^([\\w-\\.]+):([\\w-\\.]+):([\\w-\\.]+)");
-    private static final Pattern FORMAT_PATTERN = compile("###\\s*(\\w+)");
+    private static final String FORMAT_MARKER = "###";
+    private static final Pattern FORMAT_PATTERN = Pattern.compile(FORMAT_MARKER + "\\s*(\\w+)");
+    private static final int INITIAL_DEPTH = 32;
+    private static final int SKIPPED = -1;
 
     private final BillOfMaterials bom;
-    private final Map<PackageURL, Package> packages = new HashMap<>();
-    private final Stack<Integer> indentStack = new Stack<>();
-    private final Stack<@NullOr Package> packageStack = new Stack<>();
+    private final Map<PackageURL, Integer> packages = new HashMap<>();
+    private final List<Package> packageList = new ArrayList<>();
+    private final NameTable<KnownName> names = new NameTable<>();
+    private final LongHashSet relations = new LongHashSet();
+    private final Slice name = new Slice();
+    private int[] indentStack = new int[INITIAL_DEPTH];
+    private int[] packageStack = new int[INITIAL_DEPTH];
+    private int depth;
     private final List<PurlGlob> internalGlobs = new ArrayList<>();
+    private final Map<Pattern, Matcher> matchers = new IdentityHashMap<>();
+    private final LineScanner.Coordinates coordinates = new LineScanner.Coordinates();
     private int skipLevel = Integer.MAX_VALUE;
     private boolean isRelease;
-    private @NullOr Pattern startSection;
-    private @NullOr Pattern endSection;
-    private @NullOr String cleanup;
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Pattern identifierPattern;
-    private @NullOr Pattern skipPattern;
-    private @NullOr Pattern internalPattern;
-    private @NullOr Pattern typePattern;
-    private int typeGroup;
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Pattern namespacePattern;
-    private int namespaceGroup;
-    private Map<String, String> namespaceReplace = Map.of();
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Pattern namePattern;
-    private int nameGroup;
-    private Map<String, String> nameReplace = Map.of();
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Pattern versionPattern;
-    private int versionGroup;
-    private Map<String, String> versionReplace = Map.of();
-    private @NullOr Pattern relationshipPattern;
-    private int relationshipGroup;
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Map<String, String> typeMapping;
-    @SuppressWarnings("NotNullFieldNotInitialized")
-    private Map<String, Relation.Type> relationshipMapping;
+    private TreeFormat format = TreeFormat.DEFAULT;
+    private Matcher[] coordinateMatchers = new Matcher[0];
+    private boolean[] coordinateFound = new boolean[0];
     private boolean started;
     private boolean ended;
+    private boolean isRoot;
 
     TreeParser(BillOfMaterials bom) {
         this.bom = bom;
         clearFormat();
     }
 
-    private static Pattern compile(String regEx) {
-        return Pattern.compile(regEx);
-    }
-
     /**
      * Indicates the root package(s) are final versions.
      */
@@ -82,27 +66,30 @@ class TreeParser {
      * Clears al settings used in interpreting lines.
      */
     TreeParser clearFormat() {
-        startSection = null;
-        endSection = null;
-        cleanup = null;
-        identifierPattern = compile("\\w");
-        skipPattern = null;
-        internalPattern = null;
-        typePattern = null;
-        typeGroup = 0;
-        namespacePattern = ID_PATTERN;
-        namespaceGroup = 1;
-        namePattern = ID_PATTERN;
-        nameGroup = 2;
-        versionPattern = ID_PATTERN;
-        versionGroup = 3;
-        relationshipPattern = null;
-        relationshipGroup = 0;
-        typeMapping = Map.of();
-        relationshipMapping = Map.of();
-        started = true;
+        return withFormat(TreeFormat.DEFAULT);
+    }
+
+    /**
+     * Replaces all settings used in interpreting lines by a precompiled format.
+     */
+    TreeParser withFormat(TreeFormat format) {
+        this.format = format;
+        coordinateMatchers = format.coordinatePatterns.stream()
+                .map(pattern -> matchers.computeIfAbsent(pattern, p -> p.matcher("")))
+                .toArray(Matcher[]::new);
+        coordinateFound = new boolean[coordinateMatchers.length];
+        names.clear();
+        started = (format.startSection == null);
         ended = false;
+        return this;
+    }
 
+    private TreeParser update(UnaryOperator<TreeFormat.Builder> setting) {
+        final var started = this.started;
+        final var ended = this.ended;
+        withFormat(setting.apply(format.toBuilder()).build());
+        this.started = started;
+        this.ended = ended;
         return this;
     }
 
@@ -112,9 +99,8 @@ class TreeParser {
      * @param regEx regular expression to match the unique start marker
      */
     TreeParser withStartSection(String regEx) {
-        startSection = compile(regEx);
         started = false;
-        return this;
+        return update(f -> f.withStartSection(regEx));
     }
 
     /**
@@ -123,8 +109,7 @@ class TreeParser {
      * @param regEx regular expression to match the unique end marker
      */
     TreeParser withEndSection(String regEx) {
-        endSection = compile(regEx);
-        return this;
+        return update(f -> f.withEndSection(regEx));
     }
 
     /**
@@ -133,8 +118,7 @@ class TreeParser {
      * @param regEx regular expression for any fragment that is to be removed
      */
     TreeParser withCleanup(String regEx) {
-        cleanup = regEx;
-        return this;
+        return update(f -> f.withCleanup(regEx));
     }
 
     /**
@@ -144,8 +128,7 @@ class TreeParser {
      * @param regEx regular expression to match at the first character of the identifier
      */
     TreeParser withIdentifier(String regEx) {
-        identifierPattern = compile(regEx);
-        return this;
+        return update(f -> f.withIdentifier(regEx));
     }
 
     /**
@@ -154,8 +137,7 @@ class TreeParser {
      * @param regEx regular expression to match a package that is to be skipped
      */
     TreeParser withSkip(String regEx) {
-        skipPattern = compile(regEx);
-        return this;
+        return update(f -> f.withSkip(regEx));
     }
 
     /**
@@ -164,8 +146,17 @@ class TreeParser {
      * @param regEx regular expression to match an internal package.
      */
     TreeParser withInternal(String regEx) {
-        internalPattern = compile(regEx);
-        return this;
+        return update(f -> f.withInternal(regEx));
+    }
+
+    /**
+     * (Optionally) specifies the marker of a package of which the subtree was already listed before.
+     * Such a package is only linked to its parent, and any subtree listed for it is ignored.
+     *
+     * @param regEx regular expression to match the marker of a repeated package
+     */
+    TreeParser withRepeated(String regEx) {
+        return update(f -> f.withRepeated(regEx));
     }
 
     TreeParser withInternal(PurlGlob glob) {
@@ -180,8 +171,7 @@ class TreeParser {
      * @see #withType(String, int) (Optional) format of a custom marker
      */
     TreeParser withTypes(Map<String, String> mapping) {
-        this.typeMapping = mapping;
-        return this;
+        return update(f -> f.withTypes(mapping));
     }
 
     /**
@@ -191,9 +181,7 @@ class TreeParser {
      * @param group the matching group holding the mask
      */
     TreeParser withType(String regEx, int group) {
-        typePattern = compile(regEx);
-        typeGroup = group;
-        return this;
+        return update(f -> f.withType(regEx, group));
     }
 
     /**
@@ -203,9 +191,7 @@ class TreeParser {
      * @param group the matching group holding the mask
      */
     TreeParser withNamespace(String regEx, int group) {
-        namespacePattern = compile(regEx);
-        namespaceGroup = group;
-        return this;
+        return update(f -> f.withNamespace(regEx, group));
     }
 
     /**
@@ -214,8 +200,7 @@ class TreeParser {
      * @param mapping replacement
      */
     TreeParser withNamespaceReplace(Map<String, String> mapping) {
-        namespaceReplace = mapping;
-        return this;
+        return update(f -> f.withNamespaceReplace(mapping));
     }
 
     /**
@@ -225,9 +210,7 @@ class TreeParser {
      * @param group the matching group holding the mask
      */
     TreeParser withName(String regEx, int group) {
-        namePattern = compile(regEx);
-        nameGroup = group;
-        return this;
+        return update(f -> f.withName(regEx, group));
     }
 
     /**
@@ -236,8 +219,7 @@ class TreeParser {
      * @param mapping replacement
      */
     TreeParser withNameReplace(Map<String, String> mapping) {
-        nameReplace = mapping;
-        return this;
+        return update(f -> f.withNameReplace(mapping));
     }
 
     /**
@@ -247,9 +229,7 @@ class TreeParser {
      * @param group the matching group holding the mask
      */
     TreeParser withVersion(String regEx, int group) {
-        versionPattern = compile(regEx);
-        versionGroup = group;
-        return this;
+        return update(f -> f.withVersion(regEx, group));
     }
 
     /**
@@ -258,8 +238,7 @@ class TreeParser {
      * @param mapping replacement
      */
     TreeParser withVersionReplace(Map<String, String> mapping) {
-        versionReplace = mapping;
-        return this;
+        return update(f -> f.withVersionReplace(mapping));
     }
 
     /**
@@ -270,18 +249,7 @@ class TreeParser {
      * @see #withRelationship(String, int) (Optional) format of a custom marker
      */
     TreeParser withRelationships(Map<String, String> mapping) {
-        relationshipMapping = mapping.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> relationType(e.getValue())));
-        return this;
-    }
-
-    private Relation.Type relationType(String string) {
-        try {
-            return Relation.Type.valueOf(string.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            final var types = Arrays.stream(Relation.Type.values()).map(Enum::name).collect(Collectors.toList());
-            throw new TreeException("Relationship type '" + string + "' is not one of " + types);
-        }
+        return update(f -> f.withRelationships(mapping));
     }
 
     /**
@@ -291,9 +259,7 @@ class TreeParser {
      * @param group the matching group holding the mask
      */
     TreeParser withRelationship(String regEx, int group) {
-        relationshipPattern = compile(regEx);
-        relationshipGroup = group;
-        return this;
+        return update(f -> f.withRelationship(regEx, group));
     }
 
     /**
@@ -303,62 +269,139 @@ class TreeParser {
      * @param line line of ascii characters
      * @return next format if format pattern was found
      */
-    Optional<String> parse(String line) {
+    Optional<String> parse(CharSequence line) {
+        return process(line, true);
+    }
+
+    /**
+     * Follows the sections and format switches of a line of text, without interpreting any package.
+     *
+     * @param line line of ascii characters
+     * @return next format if format pattern was found
+     * @see #isRoot() Whether the line holds a root package
+     */
+    Optional<String> scan(CharSequence line) {
+        return process(line, false);
+    }
+
+    /**
+     * @return true if the last parsed or scanned line holds a package without indentation
+     */
+    boolean isRoot() {
+        return isRoot;
+    }
+
+    /**
+     * Treats the following lines as part of the relevant section, as if the start of the section was found.
+     */
+    TreeParser withinSection() {
+        started = true;
+        ended = false;
+        return this;
+    }
+
+    private Optional<String> process(CharSequence line, boolean interpret) {
+        isRoot = false;
         if (ignoredLine(line)) {
             return Optional.empty();
         }
 
-        final var match = FORMAT_PATTERN.matcher(line);
-        if (match.find()) {
-            return Optional.ofNullable(match.group(1));
+        if (contains(line, FORMAT_MARKER)) {
+            final var match = matcher(FORMAT_PATTERN, line);
+            if (match.find()) {
+                return Optional.ofNullable(match.group(1));
+            }
         }
 
         final var clean = clean(line);
-        final var indent = firstPackageCharacter(clean);
-        final var name = clean.substring(indent);
-        if (name.isBlank()) {
+        final int from = (format.scanner != null) ? format.scanner.start(clean) : 0;
+        final int start = firstPackageCharacter(clean, from);
+        final int indent = start - from;
+        name.set(clean, start, clean.length());
+        if (isBlank(name)) {
+            return Optional.empty();
+        }
+
+        isRoot = (indent == 0);
+        if (!interpret) {
             return Optional.empty();
         }
 
         popUntil(indent);
 
         if (skippedPackage(name)) {
-            pushPackage(indent, null);
+            pushPackage(indent, SKIPPED);
         } else {
-            final var pkg = processPackage(indent, name);
-            pushPackage(indent, pkg);
+            final var id = processPackage(indent, name);
+            pushPackage(indent, id);
         }
 
         return Optional.empty();
     }
 
-    private boolean ignoredLine(String line) {
+    private boolean ignoredLine(CharSequence line) {
         if (!started) {
-            assert startSection != null;
-            started = startSection.matcher(line).find();
+            assert format.startSection != null;
+            started = matcher(format.startSection, line).find();
             return true;
         }
 
-        ended |= (endSection != null) && endSection.matcher(line).find();
+        ended |= (format.endSection != null) && matcher(format.endSection, line).find();
         return ended;
     }
 
-    private String clean(String line) {
-        return (cleanup != null) ? line.replaceAll(cleanup, "") : line;
+    private static boolean contains(CharSequence line, String marker) {
+        final int last = line.length() - marker.length();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < marker.length() && line.charAt(i + j) == marker.charAt(j)) {
+                j++;
+            }
+            if (j == marker.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the (reused) matcher for the pattern, reset to the provided input
+     */
+    private Matcher matcher(Pattern pattern, CharSequence input) {
+        return matchers.computeIfAbsent(pattern, p -> p.matcher("")).reset(input);
     }
 
-    private int firstPackageCharacter(String line) {
-        final var matcher = identifierPattern.matcher(line);
+    private CharSequence clean(CharSequence line) {
+        if (format.scanner == null && format.cleanup != null) {
+            return matcher(format.cleanup, line).replaceAll("");
+        }
+        return line;
+    }
+
+    private int firstPackageCharacter(CharSequence line, int from) {
+        if (format.scanner != null) {
+            return format.scanner.indent(line, from);
+        }
+        final var matcher = matcher(format.identifier, line);
         if (!matcher.find()) {
             return line.length();
         }
         return matcher.start();
     }
 
-    private boolean skippedPackage(String name) {
-        if (indentStack.size() < skipLevel) {
-            if (skipPattern != null && skipPattern.matcher(name).find()) {
-                skipLevel = indentStack.size() + 1;
+    private static boolean isBlank(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (!Character.isWhitespace(chars.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean skippedPackage(CharSequence name) {
+        if (depth < skipLevel) {
+            if (format.skip != null && matcher(format.skip, name).find()) {
+                skipLevel = depth + 1;
                 return true;
             } else {
                 skipLevel = Integer.MAX_VALUE;
@@ -370,11 +413,16 @@ class TreeParser {
 
     private PackageURL purlFromLine(String line) {
         try {
+            if (format.scanner != null && format.scanner.scan(line, coordinates)) {
+                final var type = (coordinates.type != null) ? typeFor(coordinates.type) : extractType(line);
+                return toPurl(type, coordinates.namespace, coordinates.name, coordinates.version);
+            }
             final var type = extractType(line);
-            final var namespace = match(namespacePattern, line, namespaceGroup);
-            final var name = match(namePattern, line, nameGroup);
-            final var version = match(versionPattern, line, versionGroup);
-            return toPurl(type, replace(namespace, namespaceReplace), replace(name, nameReplace), replace(version, versionReplace));
+            matchCoordinates(line);
+            final var namespace = extract(format.namespace, 0);
+            final var name = extract(format.name, 1);
+            final var version = extract(format.version, 2);
+            return toPurl(type, namespace, name, version);
         } catch (TreeException e) {
             throw e;
         } catch (Exception e) {
@@ -383,7 +431,11 @@ class TreeParser {
     }
 
     private String extractType(String line) {
-        final var id = match(typePattern, line, typeGroup);
+        return typeFor(match(format.type, line));
+    }
+
+    private String typeFor(String id) {
+        final var typeMapping = format.typeMapping;
         final @NullOr String type = typeMapping.isEmpty() ? id : typeMapping.get(id);
         if (type == null) {
             throw new TreeException("Not a supported type identifier: '" + id
@@ -392,8 +444,9 @@ class TreeParser {
         return type;
     }
 
-    private Relation.Type extractRelationship(String line) {
-        final var id = match(relationshipPattern, line, relationshipGroup);
+    private Relation.Type extractRelationship(CharSequence line) {
+        final var id = match(format.relationship, line);
+        final var relationshipMapping = format.relationshipMapping;
         final Relation.@NullOr Type relationship = relationshipMapping.isEmpty()
                 ? Relation.Type.DYNAMICALLY_LINKS : relationshipMapping.get(id);
         if (relationship == null) {
@@ -403,76 +456,203 @@ class TreeParser {
         return relationship;
     }
 
-    private String match(@NullOr Pattern pattern, String line, int group) {
-        if (pattern == null) {
-            return "";
-        }
-        final var matcher = pattern.matcher(line);
-        if (!matcher.find()) {
-            return "";
+    /**
+     * Matches every distinct coordinate pattern only once against the line.
+     */
+    private void matchCoordinates(String line) {
+        for (int i = 0; i < coordinateMatchers.length; i++) {
+            coordinateFound[i] = coordinateMatchers[i].reset(line).find();
         }
-        return matcher.group(group);
     }
 
-    private String replace(String source, Map<String, String> mapping) {
-        var result = source;
-        for (var entry : mapping.entrySet()) {
-            result = result.replaceAll(entry.getKey(), entry.getValue());
+    /**
+     * @param coordinate index of the namespace, name or version mask
+     */
+    private String extract(TreeFormat.Mask mask, int coordinate) {
+        final int index = format.coordinateIndex[coordinate];
+        var result = coordinateFound[index] ? coordinateMatchers[index].group(mask.group) : "";
+        for (var replacement : mask.replace) {
+            result = matcher(replacement.pattern, result).replaceAll(replacement.replacement);
         }
         return result;
     }
 
+    private String match(TreeFormat.@NullOr Mask mask, CharSequence line) {
+        if (mask == null) {
+            return "";
+        }
+        final var matcher = matcher(mask.pattern, line);
+        if (!matcher.find()) {
+            return "";
+        }
+        return matcher.group(mask.group);
+    }
+
     private PackageURL toPurl(String type, String namespace, String name, String version) {
         try {
-            return new PackageURL(type, namespace, name, version, null, null);
+            return PurlFactory.of(type, namespace, name, version);
         } catch (MalformedPackageURLException e) {
             throw new TreeException("Invalid package identifier: type=" + type + ", namespace=" + namespace + ", name=" + name + ", version=" + version);
         }
     }
 
-    private Package processPackage(int indent, String name) {
-        final var purl = purlFromLine(name);
-        final Package pkg = storePackage(purl);
+    /**
+     * @return the index of the package of the line
+     */
+    private int processPackage(int indent, CharSequence name) {
+        @NullOr KnownName known = names.get(name);
+        if (known == null) {
+            known = learn(indent, name.toString());
+        }
+        final var pkg = packageList.get(known.id);
+        if (isInternal(indent, known)) {
+            pkg.setInternal(true);
+        }
 
-        if (!(isRelease && indent == 0)) {
-            if ((indent == 0) || isInternal(purl) || matchesInternalRegex(name)) {
-                pkg.setInternal(true);
+        if (depth > 0 && indent > indentStack[depth - 1]) {
+            final int parent = packageStack[depth - 1];
+            if (known.relationship == null) {
+                known.relationship = extractRelationship(name);
+            }
+            final var type = known.relationship;
+            if (relations.add(relationKey(parent, known.id, type))) {
+                bom.addRelation(packageList.get(parent), pkg, type);
             }
         }
-        if (!indentStack.isEmpty() && indent > indentStack.peek()) {
-            bom.addRelation(packageStack.peek(), pkg, extractRelationship(name));
+
+        if (known.isRepeated) {
+            skipLevel = depth + 1;
         }
+        return known.id;
+    }
 
-        return pkg;
+    /**
+     * Interprets a line with a package identifier that was not encountered before in the current format.
+     * A package that is marked as repeated reuses the package of an earlier line.
+     */
+    private KnownName learn(int indent, String name) {
+        int id = -1;
+        boolean isRepeated = false;
+        if (format.repeated != null) {
+            final var matcher = matcher(format.repeated, name);
+            isRepeated = matcher.find();
+            if (isRepeated) {
+                final @NullOr KnownName original = names.get(name.substring(0, matcher.start()));
+                id = (original != null) ? original.id : -1;
+            }
+        }
+        final var purl = (id >= 0) ? packageList.get(id).getPurl().orElseThrow() : purlFromLine(name);
+        final var known = new KnownName(isInternal(purl) || matchesInternalRegex(name), isRepeated);
+        known.id = (id >= 0) ? id : storePackage(purl, isInternal(indent, known));
+        names.put(name, known);
+        return known;
+    }
+
+    private boolean isInternal(int indent, KnownName known) {
+        return !(isRelease && indent == 0) && ((indent == 0) || known.isInternal);
     }
 
     private boolean isInternal(PackageURL purl) {
-        return internalGlobs.stream().anyMatch(glob -> glob.matches(purl));
+        for (var glob : internalGlobs) {
+            if (glob.matches(purl)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private boolean matchesInternalRegex(String name) {
-        return internalPattern != null && internalPattern.matcher(name).find();
+        return format.internal != null && matcher(format.internal, name).find();
     }
 
-    private Package storePackage(PackageURL purl) {
-        return packages.computeIfAbsent(purl, x -> {
-            final var pkg = new Package(purl);
-            bom.addPackage(pkg);
-            return pkg;
-        });
+    /**
+     * @return the index of the (new) package
+     */
+    private int storePackage(PackageURL purl, boolean internal) {
+        final @NullOr Integer id = packages.get(purl);
+        if (id != null) {
+            if (internal) {
+                packageList.get(id).setInternal(true);
+            }
+            return id;
+        }
+        final var created = new Package(purl).setInternal(internal);
+        bom.addPackage(created);
+        packageList.add(created);
+        packages.put(purl, packageList.size() - 1);
+        return packageList.size() - 1;
+    }
+
+    private static long relationKey(int from, int to, Relation.Type type) {
+        return ((long) from << 35) | ((long) to << 3) | type.ordinal();
     }
 
     private void popUntil(int indent) {
-        while (!indentStack.isEmpty() && indent <= indentStack.peek()) {
-            indentStack.pop();
-            packageStack.pop();
+        while (depth > 0 && indent <= indentStack[depth - 1]) {
+            depth--;
         }
     }
 
-    private void pushPackage(int indent, @NullOr Package pkg) {
-        indentStack.push(indent);
-        //noinspection ConstantConditions
-        packageStack.push(pkg);
+    private void pushPackage(int indent, int id) {
+        if (depth == indentStack.length) {
+            indentStack = Arrays.copyOf(indentStack, 2 * depth);
+            packageStack = Arrays.copyOf(packageStack, 2 * depth);
+        }
+        indentStack[depth] = indent;
+        packageStack[depth] = id;
+        depth++;
     }
 
+    /**
+     * Interpretation of a package identifier (in the current format).
+     */
+    private static final class KnownName {
+        final boolean isInternal;
+        final boolean isRepeated;
+        int id;
+        Relation.@NullOr Type relationship;
+
+        KnownName(boolean isInternal, boolean isRepeated) {
+            this.isInternal = isInternal;
+            this.isRepeated = isRepeated;
+        }
+    }
+
+    /**
+     * Reusable view on a fragment of a line.
+     */
+    private static final class Slice implements CharSequence {
+        private CharSequence chars = "";
+        private int offset;
+        private int length;
+
+        void set(CharSequence chars, int from, int to) {
+            this.chars = chars;
+            this.offset = from;
+            this.length = to - from;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return chars.charAt(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return chars.subSequence(offset + start, offset + end);
+        }
+
+        @Override
+        public String toString() {
+            return chars.subSequence(offset, offset + length).toString();
+        }
+    }
 }
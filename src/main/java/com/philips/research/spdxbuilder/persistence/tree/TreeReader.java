@@ -5,22 +5,45 @@
 
 package com.philips.research.spdxbuilder.persistence.tree;
 
+import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.BomReader;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.Package;
 import com.philips.research.spdxbuilder.core.domain.PurlGlob;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.io.*;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class TreeReader implements BomReader {
+    /**
+     * Minimal number of lines parsed as a single chunk in parallel mode.
+     */
+    static final int CHUNK_LINES = 10_000;
+
     private final TreeFormats formats;
     private final String format;
-    private final InputStream stream;
+    private final @NullOr InputStream stream;
+    private final @NullOr File file;
     private final List<String> internalGlobs;
     private boolean isRelease;
+    private int threads = 1;
+    private int chunkLines = CHUNK_LINES;
 
     public TreeReader(InputStream stream, String format, @NullOr File extension, List<String> internalGlobs) {
+        this(stream, null, format, extension, internalGlobs);
+    }
+
+    /**
+     * Reads the tree from a memory-mapped (UTF-8) file.
+     */
+    public TreeReader(File file, String format, @NullOr File extension, List<String> internalGlobs) {
+        this(null, file, format, extension, internalGlobs);
+    }
+
+    private TreeReader(@NullOr InputStream stream, @NullOr File file, String format, @NullOr File extension, List<String> internalGlobs) {
         this.internalGlobs = internalGlobs;
         formats = new TreeFormats();
         if (extension != null) {
@@ -28,6 +51,7 @@ public class TreeReader implements BomReader {
         }
         this.format = format;
         this.stream = stream;
+        this.file = file;
     }
 
     public TreeReader setRelease(boolean enable) {
@@ -35,27 +59,110 @@ public class TreeReader implements BomReader {
         return this;
     }
 
+    /**
+     * Parses independent root packages of the tree concurrently.
+     *
+     * @param threads maximum number of concurrently parsed chunks of the tree
+     */
+    public TreeReader setParallel(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    TreeReader setChunkLines(int lines) {
+        this.chunkLines = lines;
+        return this;
+    }
+
+    /**
+     * @return false, because a later root of the tree can make an earlier dependency an internal package
+     */
+    @Override
+    public boolean isStreamable() {
+        return false;
+    }
+
     @Override
     public void read(BillOfMaterials bom) {
-        try (final var reader = new BufferedReader(new InputStreamReader(stream))) {
-            final var parser = new TreeParser(bom);
-            if (isRelease) {
-                parser.withRelease();
+        try (final var reader = open()) {
+            if (threads > 1) {
+                readParallel(reader, bom);
+            } else {
+                readSequential(reader, bom);
             }
-            internalGlobs.forEach(pattern -> parser.withInternal(new PurlGlob(pattern)));
-            formats.configure(parser, format);
+        } catch (IOException e) {
+            throw new TreeException("Failed to read the tree data");
+        }
+    }
+
+    private TreeLines open() throws IOException {
+        if (file != null) {
+            return new MappedTreeFile(file);
+        }
+        assert stream != null;
+        return TreeLines.of(new BufferedReader(new InputStreamReader(stream)));
+    }
 
-            @NullOr String line = reader.readLine();
+    private void readSequential(TreeLines reader, BillOfMaterials bom) throws IOException {
+        final var parser = createParser(bom, format);
+
+        @NullOr CharSequence line = reader.next();
+        while (line != null) {
+            parse(parser, line);
+            line = reader.next();
+        }
+    }
+
+    /**
+     * Splits the tree into chunks starting at a root package, parses the chunks concurrently into separate
+     * bill-of-materials, and merges these in their original order.
+     */
+    private void readParallel(TreeLines reader, BillOfMaterials bom) throws IOException {
+        final var pool = new ForkJoinPool(threads);
+        try {
+            final var merger = new Merger(bom);
+            final Deque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+            final var splitter = createParser(new BillOfMaterials(), format);
+            var currentFormat = format;
+            var chunk = new Chunk(currentFormat, true);
+
+            @NullOr CharSequence line = reader.next();
             while (line != null) {
-                parse(parser, line);
-                line = reader.readLine();
+                final var next = scan(splitter, line);
+                if (splitter.isRoot() && chunk.lines.size() >= chunkLines) {
+                    pending.add(pool.submit(chunk::parse));
+                    if (pending.size() > 2 * threads) {
+                        merger.merge(pending.remove().join());
+                    }
+                    chunk = new Chunk(currentFormat, false);
+                }
+                chunk.lines.add(line);
+                if (next.isPresent()) {
+                    currentFormat = next.get();
+                }
+                line = reader.next();
             }
-        } catch (IOException e) {
-            throw new TreeException("Failed to read the tree data");
+            pending.add(pool.submit(chunk::parse));
+
+            while (!pending.isEmpty()) {
+                merger.merge(pending.remove().join());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TreeParser createParser(BillOfMaterials bom, String format) {
+        final var parser = new TreeParser(bom);
+        if (isRelease) {
+            parser.withRelease();
         }
+        internalGlobs.forEach(pattern -> parser.withInternal(new PurlGlob(pattern)));
+        formats.configure(parser, format);
+        return parser;
     }
 
-    private void parse(TreeParser parser, String line) {
+    private void parse(TreeParser parser, CharSequence line) {
         try {
             parser.parse(line)
                     .ifPresent(format -> formats.configure(parser.clearFormat(), format));
@@ -64,4 +171,92 @@ public class TreeReader implements BomReader {
             throw e;
         }
     }
+
+    private Optional<String> scan(TreeParser parser, CharSequence line) {
+        try {
+            final var next = parser.scan(line);
+            next.ifPresent(format -> formats.configure(parser.clearFormat(), format));
+            return next;
+        } catch (TreeException e) {
+            System.err.println(line);
+            throw e;
+        }
+    }
+
+    /**
+     * Consecutive lines of the tree that start at a root package.
+     */
+    private class Chunk {
+        final String format;
+        final boolean isFirst;
+        final List<CharSequence> lines = new ArrayList<>();
+        final BillOfMaterials bom = new BillOfMaterials();
+        @NullOr CharSequence failedLine;
+        @NullOr TreeException failure;
+
+        Chunk(String format, boolean isFirst) {
+            this.format = format;
+            this.isFirst = isFirst;
+        }
+
+        Chunk parse() {
+            final var parser = createParser(bom, format);
+            if (!isFirst) {
+                parser.withinSection();
+            }
+            for (var line : lines) {
+                try {
+                    parser.parse(line)
+                            .ifPresent(format -> formats.configure(parser.clearFormat(), format));
+                } catch (TreeException e) {
+                    failedLine = line;
+                    failure = e;
+                    break;
+                }
+            }
+            lines.clear();
+            return this;
+        }
+    }
+
+    /**
+     * Merges the packages of chunks into a single bill-of-materials, deduplicating packages by their package URL.
+     */
+    private static class Merger {
+        private final BillOfMaterials bom;
+        private final Map<PackageURL, Package> packages = new HashMap<>();
+
+        Merger(BillOfMaterials bom) {
+            this.bom = bom;
+        }
+
+        void merge(Chunk chunk) {
+            if (chunk.failure != null) {
+                System.err.println(chunk.failedLine);
+                throw chunk.failure;
+            }
+
+            final var mapping = new IdentityHashMap<Package, Package>();
+            for (var pkg : chunk.bom.getPackages()) {
+                final var purl = pkg.getPurl().orElseThrow();
+                final @NullOr Package existing = packages.get(purl);
+                if (existing != null) {
+                    if (pkg.isInternal()) {
+                        existing.setInternal(true);
+                    }
+                    mapping.put(pkg, existing);
+                } else {
+                    packages.put(purl, pkg);
+                    bom.addPackage(pkg);
+                    mapping.put(pkg, pkg);
+                }
+            }
+            // Relations are merged per package to retain the order of the outgoing relations
+            for (var pkg : chunk.bom.getPackages()) {
+                for (var relation : chunk.bom.getRelationsFrom(pkg)) {
+                    bom.addRelation(mapping.get(relation.getFrom()), mapping.get(relation.getTo()), relation.getType());
+                }
+            }
+        }
+    }
 }
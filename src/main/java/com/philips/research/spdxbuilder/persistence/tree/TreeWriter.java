@@ -10,6 +10,7 @@ import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.BomProcessor;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.PurlFactory;
 import com.philips.research.spdxbuilder.core.domain.Relation;
 
 import java.io.IOException;
@@ -48,18 +49,18 @@ public class TreeWriter implements BomProcessor {
 
     private void buildNodes(BillOfMaterials bom) {
         nodes.clear();
-        bom.getPackages().forEach(pkg -> nodes.put(pkg, new ArrayList<>()));
+        bom.getPackages().forEach(pkg -> {
+            final var relations = new ArrayList<>(bom.getRelationsFrom(pkg));
+            relations.sort(Comparator.comparing(rel -> name(rel.getTo())));
+            nodes.put(pkg, relations);
+        });
 
         roots.clear();
-        roots.addAll(nodes.keySet());
+        nodes.keySet().stream()
+                .filter(pkg -> bom.getRelationsTo(pkg).isEmpty())
+                .forEach(roots::add);
         roots.sort(Comparator.comparing(this::name));
 
-        bom.getRelations().forEach(rel -> {
-            roots.remove(rel.getTo());
-            nodes.get(rel.getFrom()).add(rel);
-        });
-        nodes.values().forEach(list -> list.sort(Comparator.comparing(rel -> name(rel.getTo()))));
-
         done.clear();
         done.addAll(roots);
     }
@@ -110,7 +111,7 @@ public class TreeWriter implements BomProcessor {
     private String name(Package pkg) {
         return pkg.getPurl().orElseGet(() -> {
             try {
-                return new PackageURL("generic", pkg.getNamespace(), pkg.getName(), pkg.getVersion(), null, null);
+                return PurlFactory.of("generic", pkg.getNamespace(), pkg.getName(), pkg.getVersion());
             } catch (MalformedPackageURLException e) {
                 throw new IllegalArgumentException("Failed to create generic package URL for " + pkg);
             }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.Package;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KnowledgeBaseTest {
+    private static final String NAMESPACE = "Namespace";
+    private static final String VERSION = "Version";
+    private static final int PACKAGES = 12;
+    private static final int CONCURRENCY = 3;
+
+    private final BillOfMaterials bom = new BillOfMaterials();
+    private final StubKnowledgeBase knowledgeBase = new StubKnowledgeBase();
+
+    @BeforeEach
+    void beforeEach() {
+        for (var i = 0; i < PACKAGES; i++) {
+            bom.addPackage(new Package(NAMESPACE, "Package" + i, VERSION));
+        }
+    }
+
+    @Test
+    void enhancesPackagesSequentiallyByDefault() {
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isTrue();
+        assertThat(knowledgeBase.enhanced).containsExactlyInAnyOrderElementsOf(bom.getPackages());
+        assertThat(knowledgeBase.maxActive.get()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsConcurrentEnhancements() {
+        knowledgeBase.setConcurrency(CONCURRENCY);
+
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isTrue();
+        assertThat(knowledgeBase.enhanced).containsExactlyInAnyOrderElementsOf(bom.getPackages());
+        assertThat(knowledgeBase.maxActive.get()).isGreaterThan(1).isLessThanOrEqualTo(CONCURRENCY);
+    }
+
+    @Test
+    void skipsInternalPackages() {
+        final var internal = bom.getPackages().get(0).setInternal(true);
+        knowledgeBase.setConcurrency(CONCURRENCY);
+
+        knowledgeBase.enhance(bom);
+
+        assertThat(knowledgeBase.enhanced).hasSize(PACKAGES - 1).doesNotContain(internal);
+    }
+
+    @Test
+    void reportsFailedEnhancement() {
+        knowledgeBase.failing = bom.getPackages().get(PACKAGES / 2);
+        knowledgeBase.setConcurrency(CONCURRENCY);
+
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isFalse();
+        assertThat(knowledgeBase.enhanced).hasSize(PACKAGES);
+    }
+
+    @Test
+    void pollsFailedEnhancements() {
+        final var pkg = bom.getPackages().get(PACKAGES / 2);
+        knowledgeBase.failing = pkg;
+        knowledgeBase.setPolling(new PollingScheduler(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofSeconds(5), 2));
+        knowledgeBase.availableAfter = 3;
+
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isTrue();
+        assertThat(knowledgeBase.retried).containsOnly(pkg);
+        assertThat(knowledgeBase.retries.get()).isEqualTo(3);
+    }
+
+    @Test
+    void reportsEnhancementsFailingAfterPolling() {
+        knowledgeBase.failing = bom.getPackages().get(0);
+        knowledgeBase.setPolling(new PollingScheduler(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50), 2));
+
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isFalse();
+        assertThat(knowledgeBase.retries.get()).isPositive();
+    }
+
+    @Test
+    void propagatesEnhancementException() {
+        knowledgeBase.throwing = true;
+        knowledgeBase.setConcurrency(CONCURRENCY);
+
+        assertThatThrownBy(() -> knowledgeBase.enhance(bom))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Server down");
+    }
+
+    @Test
+    void throws_invalidConcurrency() {
+        assertThatThrownBy(() -> knowledgeBase.setConcurrency(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class StubKnowledgeBase extends KnowledgeBase {
+        final Set<Package> enhanced = ConcurrentHashMap.newKeySet();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final Set<Package> retried = ConcurrentHashMap.newKeySet();
+        final AtomicInteger retries = new AtomicInteger();
+        volatile Package failing;
+        volatile boolean throwing;
+        volatile int availableAfter = Integer.MAX_VALUE;
+
+        @Override
+        public boolean enhance(Package pkg) {
+            if (throwing) {
+                throw new BusinessException("Server down");
+            }
+            final var count = active.incrementAndGet();
+            maxActive.accumulateAndGet(count, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            enhanced.add(pkg);
+            active.decrementAndGet();
+            return pkg != failing;
+        }
+    
+        @Override
+        protected boolean retry(Package pkg) {
+            retried.add(pkg);
+            return retries.incrementAndGet() >= availableAfter;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PollingSchedulerTest {
+    private static final Duration DELAY = Duration.ofMillis(5);
+
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    @Test
+    void repeatsUntilSuccess() {
+        final var scheduler = new PollingScheduler(DELAY, Duration.ofMillis(20), Duration.ofSeconds(5), 2);
+
+        final var remaining = scheduler.poll(List.of("A", "B", "C"), item -> attempt(item) >= item.charAt(0) - 'A' + 1);
+
+        assertThat(remaining).isEmpty();
+        assertThat(attempts).isEqualTo(Map.of("A", 1, "B", 2, "C", 3));
+    }
+
+    @Test
+    void returnsItemsRemainingAtDeadline() {
+        final var scheduler = new PollingScheduler(DELAY, DELAY, Duration.ofMillis(100), 2);
+
+        final var remaining = scheduler.poll(List.of("A", "B"), item -> item.equals("A"));
+
+        assertThat(remaining).containsExactly("B");
+    }
+
+    @Test
+    void waitsForAllItemsInParallel() {
+        final var scheduler = new PollingScheduler(Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofMillis(300), 1);
+        final var items = IntStream.range(0, 100).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        final var start = System.nanoTime();
+        final var remaining = scheduler.poll(items, item -> attempt(item) < 0);
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Waiting per item in sequence would take at least 100 * 50ms
+        assertThat(remaining).containsExactlyElementsOf(items);
+        assertThat(attempts).containsOnlyKeys(items);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void backsOffExponentially() {
+        final var scheduler = new PollingScheduler(Duration.ofMillis(20), Duration.ofSeconds(10), Duration.ofMillis(500), 1);
+
+        scheduler.poll(List.of("A"), item -> attempt(item) < 0);
+
+        // Attempts after 20, 60, 140 and 300ms; the next (620ms) exceeds the deadline.
+        // (A slow machine may miss some, but a fixed 20ms delay would yield many more.)
+        assertThat(attempts.get("A")).isBetween(2, 4);
+    }
+
+    @Test
+    void propagatesFailure() {
+        final var scheduler = new PollingScheduler(DELAY, DELAY, Duration.ofSeconds(5), 2);
+
+        assertThatThrownBy(() -> scheduler.poll(List.of("A", "B"), item -> {
+            if (item.equals("B")) {
+                throw new BusinessException("Server down");
+            }
+            return false;
+        })).isInstanceOf(BusinessException.class).hasMessage("Server down");
+    }
+
+    @Test
+    void throws_invalidDelays() {
+        assertThatThrownBy(() -> new PollingScheduler(Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int attempt(String item) {
+        return attempts.merge(item, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private static final String KEY = "key";
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void loadsValue() {
+        final var value = flight.get(KEY, () -> "value");
+
+        assertThat(value).isEqualTo("value");
+        assertThat(flight.size()).isZero();
+    }
+
+    @Test
+    void sharesConcurrentLookup() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+        try {
+            final var first = executor.submit(() -> flight.get(KEY, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "shared";
+            }));
+            started.await();
+            final var second = executor.submit(() -> flight.get(KEY, () -> "other" + calls.incrementAndGet()));
+            final var third = executor.submit(() -> flight.get(KEY, () -> "other" + calls.incrementAndGet()));
+            while (executor.getActiveCount() < 3) {
+                Thread.sleep(1);
+            }
+            // Give the waiting lookups time to join the flight
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("shared");
+            assertThat(second.get()).isEqualTo("shared");
+            assertThat(third.get()).isEqualTo("shared");
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void repeatsCompletedLookup() {
+        flight.get(KEY, () -> "first" + calls.incrementAndGet());
+        final var value = flight.get(KEY, () -> "second" + calls.incrementAndGet());
+
+        assertThat(value).isEqualTo("second2");
+    }
+
+    @Test
+    void propagatesFailure() {
+        assertThatThrownBy(() -> flight.get(KEY, () -> {
+            throw new BusinessException("Failed");
+        })).isInstanceOf(BusinessException.class).hasMessage("Failed");
+        assertThat(flight.get(KEY, () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -44,6 +44,23 @@ class BillOfMaterialsTest {
         assertThat(bom.getRelations()).containsExactly(new Relation(pkg, other, Relation.Type.DEPENDS_ON));
     }
 
+    @Test
+    void indexesRelationsByPackage() {
+        final var third = new Package(NAMESPACE, "Third", VERSION);
+        bom.addRelation(pkg, other, Relation.Type.DEPENDS_ON);
+        bom.addRelation(pkg, third, Relation.Type.STATICALLY_LINKS);
+        bom.addRelation(other, third, Relation.Type.DEPENDS_ON);
+
+        assertThat(bom.getRelationsFrom(pkg)).containsExactly(
+                new Relation(pkg, other, Relation.Type.DEPENDS_ON),
+                new Relation(pkg, third, Relation.Type.STATICALLY_LINKS));
+        assertThat(bom.getRelationsTo(third)).containsExactly(
+                new Relation(pkg, third, Relation.Type.STATICALLY_LINKS),
+                new Relation(other, third, Relation.Type.DEPENDS_ON));
+        assertThat(bom.getRelationsFrom(third)).isEmpty();
+        assertThat(bom.getRelationsTo(pkg)).isEmpty();
+    }
+
     @Test
     void defaultsTitleToFirstProject() {
         bom.addPackage(pkg);
@@ -7,22 +7,30 @@ package com.philips.research.spdxbuilder.core.domain;
 
 import com.philips.research.spdxbuilder.core.*;
 import com.philips.research.spdxbuilder.persistence.spdx.SpdxWriter;
+import com.philips.research.spdxbuilder.persistence.tree.TreeReader;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,6 +86,7 @@ class ConversionInteractorTest {
 
         verify(knowledgeBase).enhance(bom);
         verify(writer).process(bom);
+        verify(knowledgeBase).finish();
     }
 
     @Test
@@ -87,6 +96,7 @@ class ConversionInteractorTest {
         assertThatThrownBy(() -> interactor.convert(false))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Enhancement of metadata failed");
+        verify(knowledgeBase).finish();
     }
 
     @Test
@@ -96,6 +106,25 @@ class ConversionInteractorTest {
         interactor.convert(true);
     }
 
+    @Test
+    void ignoresKnowledgeBaseFinishFailure() {
+        doThrow(new BusinessException("Feedback failed")).when(knowledgeBase).finish();
+
+        interactor.convert(false);
+
+        verify(writer).process(bom);
+    }
+
+    @Test
+    void keepsEnhancementFailure_knowledgeBaseFinishFailure() {
+        when(knowledgeBase.enhance(any(BillOfMaterials.class))).thenReturn(false);
+        doThrow(new BusinessException("Feedback failed")).when(knowledgeBase).finish();
+
+        assertThatThrownBy(() -> interactor.convert(false))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Enhancement of metadata failed");
+    }
+
     @Test
     void skipsEnhancement_noKnowledgeBaseConfigured() {
         //noinspection ConstantConditions
@@ -125,6 +154,155 @@ class ConversionInteractorTest {
         assertThat(bom.getIdentifier()).contains(PROJECT);
     }
 
+    @Nested
+    class Streaming {
+        private final StreamingBomProcessor streamer = mock(StreamingBomProcessor.class);
+        private final ConversionService streaming = new ConversionInteractor(reader, streamer, bom)
+                .setKnowledgeBase(knowledgeBase);
+
+        @BeforeEach
+        void beforeEach() {
+            doAnswer(invocation -> {
+                bom.addPackage(project).addPackage(pkg);
+                return null;
+            }).when(reader).read(bom);
+            when(reader.isStreamable()).thenReturn(true);
+            when(knowledgeBase.getConcurrency()).thenReturn(1);
+            when(knowledgeBase.enhanceExternal(any(Package.class))).thenReturn(true);
+        }
+
+        @Test
+        void enhancesAndWritesPackagesWhileReading() {
+            streaming.stream(1, false);
+
+            final var ordered = inOrder(knowledgeBase, streamer);
+            ordered.verify(knowledgeBase).enhanceExternal(project);
+            ordered.verify(streamer).processPackage(bom, project);
+            ordered.verify(knowledgeBase).enhanceExternal(pkg);
+            ordered.verify(streamer).processPackage(bom, pkg);
+            ordered.verify(streamer).finish(bom);
+        }
+
+        @Test
+        void throws_enhancementFailureAfterWriting() {
+            when(knowledgeBase.enhanceExternal(pkg)).thenReturn(false);
+
+            assertThatThrownBy(() -> streaming.stream(1, false))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Enhancement of metadata failed");
+            verify(streamer).finish(bom);
+        }
+
+        @Test
+        void continues_enhancementFailure() {
+            when(knowledgeBase.enhanceExternal(pkg)).thenReturn(false);
+
+            streaming.stream(1, true);
+
+            verify(streamer).finish(bom);
+        }
+
+        @Test
+        void throws_readFailure() {
+            doThrow(new BusinessException("Read failed")).when(reader).read(bom);
+
+            assertThatThrownBy(() -> streaming.stream(1, false))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Read failed");
+            verify(streamer, never()).finish(bom);
+        }
+
+        @Test
+        void enhancesConcurrentlyButWritesInReadOrder() {
+            final var barrier = new CyclicBarrier(2);
+            when(knowledgeBase.getConcurrency()).thenReturn(2);
+            when(knowledgeBase.enhanceExternal(any(Package.class))).thenAnswer(invocation -> {
+                barrier.await(5, TimeUnit.SECONDS);
+                return true;
+            });
+
+            streaming.stream(1, false);
+
+            final var ordered = inOrder(streamer);
+            ordered.verify(streamer).processPackage(bom, project);
+            ordered.verify(streamer).processPackage(bom, pkg);
+            ordered.verify(streamer).finish(bom);
+        }
+
+        @Test
+        void fallsBackToSequentialConversion_nonStreamingWriter() {
+            interactor.stream(1, false);
+
+            verify(reader).read(bom);
+            verify(knowledgeBase).enhance(bom);
+            verify(writer).process(bom);
+        }
+
+        @Test
+        void fallsBackToSequentialConversion_readerModifiesPackages() {
+            when(reader.isStreamable()).thenReturn(false);
+
+            streaming.stream(1, false);
+
+            verify(knowledgeBase).enhance(bom);
+            verify(streamer).process(bom);
+            verify(streamer, never()).processPackage(any(), any());
+        }
+
+        @Test
+        void fallsBackToSequentialConversion_polling() {
+            when(knowledgeBase.isPolling()).thenReturn(true);
+
+            streaming.stream(1, false);
+
+            verify(knowledgeBase).enhance(bom);
+            verify(knowledgeBase, never()).enhanceExternal(any(Package.class));
+            verify(streamer).process(bom);
+            verify(streamer, never()).processPackage(any(), any());
+        }
+
+        @Test
+        void pollsForMissingMetadata_streamingFallback() {
+            final var attempts = new AtomicInteger();
+            final var polling = new KnowledgeBase() {
+                @Override
+                public boolean enhance(Package pkg) {
+                    return attempts.incrementAndGet() > 2;
+                }
+            }.setPolling(new PollingScheduler(Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(5), 1));
+
+            new ConversionInteractor(reader, streamer, bom)
+                    .setKnowledgeBase(polling)
+                    .stream(1, false);
+
+            assertThat(attempts.get()).isGreaterThan(2);
+            verify(streamer).process(bom);
+        }
+
+        @Test
+        void writesDependencyThatIsLaterAnInternalRoot() {
+            final var tree = String.join("\n", "ns/main@1", "+-> ns/lib@2", "ns/lib@2", "+-> ns/ext@3");
+            final var treeReader = new TreeReader(new ByteArrayInputStream(tree.getBytes(StandardCharsets.UTF_8)), "custom",
+                    Path.of("src", "test", "resources", "custom_formats.yml").toFile(), List.of());
+            final var output = new ByteArrayOutputStream();
+            when(knowledgeBase.enhance(any(Package.class))).thenReturn(true);
+            when(knowledgeBase.enhance(any(BillOfMaterials.class))).thenCallRealMethod();
+
+            new ConversionInteractor(treeReader, new SpdxWriter(output), bom)
+                    .setKnowledgeBase(knowledgeBase)
+                    .stream(1, false);
+
+            final var lib = bom.getPackages().get(1);
+            assertThat(lib.getName()).isEqualTo("lib");
+            assertThat(lib.isInternal()).isTrue();
+            verify(knowledgeBase, never()).enhance(lib);
+            verify(knowledgeBase).enhance(bom.getPackages().get(2));
+            assertThat(output.toString(Charset.defaultCharset()).lines()
+                    .filter(line -> line.startsWith("ExternalRef: ")))
+                    .containsExactly("ExternalRef: PACKAGE-MANAGER purl pkg:custom/ns/ext@3");
+        }
+    }
+
     @Nested
     class spdxDocument {
         ByteArrayOutputStream spdxOutputStream = new ByteArrayOutputStream();
@@ -162,6 +340,63 @@ class ConversionInteractorTest {
             assertThat(packages).isEqualTo(packageNames);
         }
 
+        @Test
+        void streamsPackagesBeforeRelationships() {
+            final var streamOutput = new ByteArrayOutputStream();
+            final var streamer = new SpdxWriter(streamOutput);
+            bom.addRelation(project, pkg, Relation.Type.DEPENDS_ON);
+
+            bom.getPackages().forEach(p -> streamer.processPackage(bom, p));
+            streamer.finish(bom);
+
+            final var tags = streamOutput.toString(Charset.defaultCharset()).lines()
+                    .filter(line -> line.startsWith("PackageName: ") || line.startsWith("Relationship: "))
+                    .collect(Collectors.toList());
+            assertThat(tags).containsExactly("PackageName: Namespace/Project", "PackageName: Namespace/Package",
+                    "Relationship: SPDXRef-1 DEPENDS_ON SPDXRef-2");
+        }
+
+        @Test
+        void numbersCustomLicensesInPackageOrder() {
+            final var first = licenseLinesAfterParallelEnhancement();
+            final var second = licenseLinesAfterParallelEnhancement();
+
+            assertThat(first).isEqualTo(second);
+            assertThat(first).startsWith("PackageLicenseDeclared: LicenseRef-1", "PackageLicenseDeclared: LicenseRef-2");
+            assertThat(first).endsWith("LicenseID: LicenseRef-20", "LicenseName: Custom license 19");
+        }
+
+        private List<String> licenseLinesAfterParallelEnhancement() {
+            LicenseDictionary.getInstance().clear();
+            final var licensed = new BillOfMaterials();
+            for (int i = 0; i < 20; i++) {
+                licensed.addPackage(new Package(GROUP, NAME + i, VERSION));
+            }
+            final var random = new Random();
+            final var randomOrder = new KnowledgeBase() {
+                @Override
+                public boolean enhance(Package pkg) {
+                    try {
+                        Thread.sleep(random.nextInt(5));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    pkg.setDeclaredLicense(LicenseParser.parse("Custom license " + pkg.getName().substring(NAME.length())));
+                    return true;
+                }
+            }.setConcurrency(8);
+            final var output = new ByteArrayOutputStream();
+
+            new ConversionInteractor(reader, new SpdxWriter(output), licensed)
+                    .setKnowledgeBase(randomOrder)
+                    .convert(false);
+
+            return output.toString(Charset.defaultCharset()).lines()
+                    .filter(line -> line.startsWith("PackageLicenseDeclared: ") || line.startsWith("License"))
+                    .filter(line -> !line.startsWith("LicenseListVersion"))
+                    .collect(Collectors.toList());
+        }
+
         @Test
         void verifySBOMCreatedTime() {
             String isoDate = isoFormat.format(localDateTime);
@@ -7,7 +7,11 @@ package com.philips.research.spdxbuilder.core.domain;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -93,6 +97,38 @@ class LicenseDictionaryTest {
         assertThat(dictionary.getCustomLicenses()).isEqualTo(Map.of("LicenseRef-1", "First", "LicenseRef-2", "Second"));
     }
 
+    @Test
+    void listsCustomLicensesInNumericOrder() {
+        for (int i = 1; i <= 12; i++) {
+            dictionary.licenseFor("Custom " + i);
+        }
+
+        assertThat(dictionary.getCustomLicenses().keySet()).first().isEqualTo("LicenseRef-1");
+        assertThat(dictionary.getCustomLicenses().keySet()).last().isEqualTo("LicenseRef-12");
+    }
+
+    @Test
+    void allocatesCustomLicensesConcurrently() throws Exception {
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var tasks = new ArrayList<Callable<License>>();
+            for (int i = 0; i < 1000; i++) {
+                final var text = "Custom " + (i % 100);
+                tasks.add(() -> dictionary.licenseFor(text));
+            }
+
+            final var licenses = new HashSet<License>();
+            for (var future : executor.invokeAll(tasks)) {
+                licenses.add(future.get());
+            }
+
+            assertThat(licenses).hasSize(100);
+            assertThat(dictionary.getCustomLicenses()).hasSize(100).containsKey("LicenseRef-100");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void ignoresEmptyException() {
         final var base = License.of("MIT");
@@ -141,4 +141,31 @@ class LicenseParserTest {
         assertThat(license.toString()).contains(IDENTIFIER).contains("Ref");
         assertThat(dictionary.getCustomLicenses()).hasSize(1).containsValue(EXCEPTION);
     }
+
+    @Test
+    void reusesParsedExpressions() {
+        final var text = IDENTIFIER + " OR " + IDENTIFIER2;
+        final var first = LicenseParser.parse(text);
+        final var before = LicenseParser.getCacheStatistics();
+
+        final var second = LicenseParser.parse(text);
+
+        final var after = LicenseParser.getCacheStatistics();
+        assertThat(second).isSameAs(first);
+        assertThat(after.getHits()).isEqualTo(before.getHits() + 1);
+        assertThat(after.getMisses()).isEqualTo(before.getMisses());
+    }
+
+    @Test
+    void reparsesCustomLicensesAfterDictionaryIsCleared() {
+        LicenseParser.parse("Custom one");
+        final var license = LicenseParser.parse("Custom two");
+        assertThat(license.toString()).isEqualTo("LicenseRef-2");
+
+        dictionary.clear();
+        final var reparsed = LicenseParser.parse("Custom two");
+
+        assertThat(reparsed.toString()).isEqualTo("LicenseRef-1");
+        assertThat(dictionary.getCustomLicenses()).containsEntry("LicenseRef-1", "Custom two");
+    }
 }
@@ -168,6 +168,24 @@ class LicenseTest {
             assertThat(license).isNotEqualTo("42");
             assertThat(License.of("A").and(License.of("B"))).isEqualTo(License.of("B").and(License.of("A")));
         }
+
+        @Test
+        void internsIdenticalExpressions() {
+            assertThat(License.of(IDENTIFIER)).isSameAs(License.of(IDENTIFIER));
+            assertThat(License.of(IDENTIFIER).with(EXCEPTION)).isSameAs(License.of(IDENTIFIER).with(EXCEPTION));
+            assertThat(License.of("A").and(License.of("B"))).isSameAs(License.of("B").and(License.of("A")));
+            assertThat(License.of("a")).isNotSameAs(License.of("A"));
+        }
+
+        @Test
+        void combinesWithoutModifyingOperands() {
+            final var combo = License.of("A").and(License.of("B"));
+
+            final var extended = combo.and(License.of("C"));
+
+            assertThat(combo.toString()).isEqualTo("A AND B");
+            assertThat(extended.toString()).isEqualTo("A AND B AND C");
+        }
     }
 }
 
@@ -28,6 +28,7 @@ class PackageTest {
         assertThat(pkg.getVersion()).isEqualTo(VERSION);
         assertThat(pkg.isInternal()).isFalse();
         assertThat(pkg.getPurl()).isEmpty();
+        assertThat(pkg.getCanonicalPurl()).isEmpty();
         assertThat(pkg.getSourceLocation()).isEmpty();
         assertThat(pkg.getDownloadLocation()).isEmpty();
         assertThat(pkg.getConcludedLicense()).isEmpty();
@@ -60,6 +61,7 @@ class PackageTest {
         pkg.setPurl(purl);
 
         assertThat(pkg.getPurl()).contains(purl);
+        assertThat(pkg.getCanonicalPurl()).contains("pkg:type/custom@1.2.3");
     }
 
     @Test
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.core.domain;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PurlFactoryTest {
+    private static final String TYPE = "npm";
+    private static final String NAMESPACE = "@namespace";
+    private static final String NAME = "name";
+    private static final String VERSION = "1.2.3";
+
+    @Test
+    void reusesPackageUrlForRepeatedCoordinates() throws Exception {
+        final var purl = PurlFactory.of(TYPE, NAMESPACE, NAME, VERSION);
+
+        assertThat(purl).isEqualTo(new PackageURL(TYPE, NAMESPACE, NAME, VERSION, null, null));
+        assertThat(PurlFactory.of(TYPE, NAMESPACE, NAME, VERSION)).isSameAs(purl);
+    }
+
+    @Test
+    void reusesPackageUrlForNormalizedCoordinates() throws Exception {
+        final var purl = PurlFactory.of("NPM", "@other", NAME, VERSION);
+
+        assertThat(purl.getType()).isEqualTo("npm");
+        assertThat(PurlFactory.of("npm", "@other", NAME, VERSION)).isSameAs(purl);
+    }
+
+    @Test
+    void distinguishesQualifiers() throws Exception {
+        final var plain = PurlFactory.of(TYPE, NAMESPACE, NAME, VERSION);
+        final var qualified = PurlFactory.of(TYPE, NAMESPACE, NAME, VERSION, Map.of("b", "2", "a", "1"));
+
+        assertThat(qualified).isNotEqualTo(plain);
+        assertThat(PurlFactory.of(TYPE, NAMESPACE, NAME, VERSION, Map.of("a", "1", "b", "2"))).isSameAs(qualified);
+        assertThat(PurlFactory.canonical(qualified)).isEqualTo("pkg:npm/%40namespace/name@1.2.3?a=1&b=2");
+    }
+
+    @Test
+    void parsesPackageUrlOnce() throws Exception {
+        final var purl = PurlFactory.parse("pkg:maven/group/artifact@1.0");
+
+        assertThat(PurlFactory.parse("pkg:maven/group/artifact@1.0")).isSameAs(purl);
+        assertThat(PurlFactory.of("maven", "group", "artifact", "1.0")).isSameAs(purl);
+    }
+
+    @Test
+    void providesCanonicalRepresentation() throws Exception {
+        final var purl = new PackageURL(TYPE, NAMESPACE, NAME, VERSION, null, null);
+
+        final var canonical = PurlFactory.canonical(purl);
+
+        assertThat(canonical).isEqualTo(purl.canonicalize());
+        assertThat(PurlFactory.canonical(purl)).isSameAs(canonical);
+    }
+
+    @Test
+    void throws_malformedCoordinates() {
+        assertThatThrownBy(() -> PurlFactory.of("maven", null, NAME, VERSION))
+                .isInstanceOf(MalformedPackageURLException.class);
+        assertThatThrownBy(() -> PurlFactory.parse("Not a package URL"))
+                .isInstanceOf(MalformedPackageURLException.class);
+    }
+}
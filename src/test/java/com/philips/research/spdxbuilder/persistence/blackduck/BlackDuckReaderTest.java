@@ -268,23 +268,84 @@ class BlackDuckReaderTest {
             }
 
             @Test
-            void exportsAdditionalRelationshipsOnMultipleInstancesOfTheSameComponent() {
-                final var child1 = mockBdComponent("child1");
-                final var child2 = mockBdComponent("child2");
-                when(client.getRootComponents(PROJECT_ID, VERSION_ID)).thenReturn(List.of(parent, parent));
-                //noinspection unchecked
-                when(client.getDependencies(PROJECT_ID, VERSION_ID, parent)).thenReturn(List.of(child1), List.of(child2));
+            void expandsSharedComponentOnlyOnce() {
+                final var other = mockBdComponent("other");
+                final var child = mockBdComponent("child");
+                when(client.getRootComponents(PROJECT_ID, VERSION_ID)).thenReturn(List.of(parent, other));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, parent)).thenReturn(List.of(component));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, other)).thenReturn(List.of(component));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, component)).thenReturn(List.of(child));
 
                 reader.read(bom);
 
-                assertThat(bom.getPackages()).hasSize(1 + 1 + 2); // project + parent + 2x child
+                assertThat(bom.getPackages()).hasSize(1 + 2 + 1 + 1); // project + parent/other + shared + child
                 final var parentPkg = bom.getPackages().get(1);
-                final var child1Pkg = bom.getPackages().get(2);
-                final var child2Pkg = bom.getPackages().get(3);
+                final var sharedPkg = bom.getPackages().get(2);
+                final var childPkg = bom.getPackages().get(3);
+                final var otherPkg = bom.getPackages().get(4);
+                assertThat(bom.getRelations()).contains(
+                        new Relation(parentPkg, sharedPkg, Relation.Type.DYNAMICALLY_LINKS),
+                        new Relation(otherPkg, sharedPkg, Relation.Type.DYNAMICALLY_LINKS),
+                        new Relation(sharedPkg, childPkg, Relation.Type.DYNAMICALLY_LINKS)
+                );
+                verify(client).getDependencies(PROJECT_ID, VERSION_ID, component);
+                verify(client).getComponentDetails(component);
+            }
+
+            @Test
+            void expandsRepeatedSubprojectOnlyOnce() {
+                final var projectId = UUID.randomUUID();
+                final var versionId = UUID.randomUUID();
+                when(parent.isSubproject()).thenReturn(true);
+                when(parent.getId()).thenReturn(projectId);
+                when(parent.getVersionId()).thenReturn(versionId);
+                when(client.getRootComponents(PROJECT_ID, VERSION_ID)).thenReturn(List.of(parent, component));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, component)).thenReturn(List.of(parent));
+                when(client.getRootComponents(projectId, versionId)).thenReturn(List.of());
+
+                reader.read(bom);
+
+                assertThat(bom.getPackages()).hasSize(1 + 1 + 1); // project + subproject + component
+                final var root = bom.getPackages().get(0);
+                final var subproject = bom.getPackages().get(1);
+                final var pkg = bom.getPackages().get(2);
                 assertThat(bom.getRelations()).contains(
-                        new Relation(parentPkg, child1Pkg, Relation.Type.DYNAMICALLY_LINKS),
-                        new Relation(parentPkg, child2Pkg, Relation.Type.DYNAMICALLY_LINKS)
+                        new Relation(root, subproject, Relation.Type.DYNAMICALLY_LINKS),
+                        new Relation(pkg, subproject, Relation.Type.DYNAMICALLY_LINKS)
                 );
+                verify(client).getRootComponents(projectId, versionId);
+            }
+
+            @Test
+            void buildsSameTreeWhenCrawlingConcurrently() {
+                final var other = mockBdComponent("other");
+                final var slow = mockBdComponent("slow");
+                final var fast = mockBdComponent("fast");
+                when(client.getRootComponents(PROJECT_ID, VERSION_ID)).thenReturn(List.of(parent, other));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, parent)).thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return List.of(slow);
+                });
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, other)).thenReturn(List.of(fast));
+
+                new BlackDuckReader(client, TOKEN, PROJECT_SHORT, VERSION_SHORT)
+                        .setConcurrency(4, 0)
+                        .read(bom);
+
+                assertThat(bom.getPackages()).extracting(pkg -> pkg.getName())
+                        .containsExactly("Project title", "parent", "slow", "other", "fast");
+            }
+
+            @Test
+            void throws_failedConcurrentRequest() {
+                when(client.getRootComponents(PROJECT_ID, VERSION_ID)).thenReturn(List.of(parent));
+                when(client.getDependencies(PROJECT_ID, VERSION_ID, parent)).thenThrow(new BlackDuckException("Failed"));
+
+                assertThatThrownBy(() -> new BlackDuckReader(client, TOKEN, PROJECT_SHORT, VERSION_SHORT)
+                        .setConcurrency(4, 0)
+                        .read(bom))
+                        .isInstanceOf(BlackDuckException.class)
+                        .hasMessage("Failed");
             }
 
             @Test
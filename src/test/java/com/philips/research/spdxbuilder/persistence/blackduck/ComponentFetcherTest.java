@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.blackduck;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ComponentFetcherTest {
+    private final BlackDuckClient client = mock(BlackDuckClient.class);
+    private final RateLimiter limiter = spy(new RateLimiter(0, 1));
+    private final ComponentFetcher fetcher = new ComponentFetcher(client, 1, limiter);
+    private final BlackDuckComponent first = mock(BlackDuckComponent.class);
+    private final BlackDuckComponent second = mock(BlackDuckComponent.class);
+    private final BlackDuckComponentDetails details = mock(BlackDuckComponentDetails.class);
+
+    @AfterEach
+    void afterEach() {
+        fetcher.close();
+    }
+
+    @Test
+    void fetchesPrefetchedDetails() throws Exception {
+        when(client.getComponentDetails(first)).thenReturn(details);
+        final var purl = new PackageURL("pkg:generic/first@1");
+
+        fetcher.prefetchDetails(purl, first);
+
+        assertThat(fetcher.getDetails(purl, first)).isSameAs(details);
+        verify(client).getComponentDetails(first);
+    }
+
+    @Test
+    void skipsDiscardedPrefetch() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        when(client.getComponentDetails(first)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return details;
+        });
+        final var purl = purlFrom("pkg:generic/first@1");
+        final var other = purlFrom("pkg:generic/second@1");
+
+        fetcher.prefetchDetails(purl, first);
+        started.await(5, TimeUnit.SECONDS);
+        fetcher.prefetchDetails(other, second);
+        fetcher.discardDetails(other);
+        release.countDown();
+        fetcher.getDetails(purl, first);
+        fetcher.close();
+
+        verify(client, never()).getComponentDetails(second);
+        verify(limiter, times(1)).acquire();
+    }
+
+    private static PackageURL purlFrom(String purl) {
+        try {
+            return new PackageURL(purl);
+        } catch (MalformedPackageURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
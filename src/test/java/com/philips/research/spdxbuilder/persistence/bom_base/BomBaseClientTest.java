@@ -11,10 +11,16 @@ import okhttp3.mockwebserver.MockWebServer;
 import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -60,6 +66,48 @@ class BomBaseClientTest {
         assertThat(meta).isEmpty();
     }
 
+    @Test
+    void readsPackageFromCache(@TempDir Path directory) throws Exception {
+        final var cached = new BomBaseClient(URI.create("http://localhost:" + PORT), new PackageCache(directory, Duration.ofHours(1)));
+        mockServer.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("attributes", new JSONObject()
+                        .put("title", TITLE)).toString()));
+
+        cached.readPackage(new PackageURL(PURL));
+        final var meta = cached.readPackage(new PackageURL(PURL)).orElseThrow();
+
+        assertThat(meta.getTitle()).contains(TITLE);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachesUnknownPackage(@TempDir Path directory) throws Exception {
+        final var cached = new BomBaseClient(URI.create("http://localhost:" + PORT), new PackageCache(directory, Duration.ofHours(1)));
+        mockServer.enqueue(new MockResponse().setResponseCode(404));
+
+        cached.readPackage(new PackageURL(PURL));
+        final var meta = cached.readPackage(new PackageURL(PURL));
+
+        assertThat(meta).isEmpty();
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshesUnknownPackage(@TempDir Path directory) throws Exception {
+        final var cached = new BomBaseClient(URI.create("http://localhost:" + PORT), new PackageCache(directory, Duration.ofHours(1)));
+        mockServer.enqueue(new MockResponse().setResponseCode(404));
+        mockServer.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("attributes", new JSONObject()
+                        .put("title", TITLE)).toString()));
+
+        cached.readPackage(new PackageURL(PURL));
+        final var meta = cached.readPackage(new PackageURL(PURL), true).orElseThrow();
+
+        assertThat(meta.getTitle()).contains(TITLE);
+        assertThat(cached.readPackage(new PackageURL(PURL))).isPresent();
+        assertThat(mockServer.getRequestCount()).isEqualTo(2);
+    }
+
     @Test
     void throws_errorStatus() {
         mockServer.enqueue(new MockResponse().setResponseCode(500));
@@ -68,4 +116,62 @@ class BomBaseClientTest {
                 .isInstanceOf(BomBaseException.class)
                 .hasMessageContaining("responded with status 500");
     }
+
+    @Nested
+    class BulkLookup {
+        private static final String OTHER = "pkg:namespace/other@version";
+        private static final String UNKNOWN = "pkg:namespace/unknown@version";
+
+        private final BomBaseStub stub = new BomBaseStub()
+                .withPackage(PURL, Map.of("title", TITLE))
+                .withPackage(OTHER, Map.of("title", "Other"));
+
+        @BeforeEach
+        void setUp() {
+            mockServer.setDispatcher(stub);
+        }
+
+        @Test
+        void readsPrefetchedPackagesInBatches() throws Exception {
+            client.setBatchSize(2);
+
+            client.prefetch(List.of(new PackageURL(PURL), new PackageURL(OTHER), new PackageURL(UNKNOWN)));
+            final var meta = client.readPackage(new PackageURL(PURL)).orElseThrow();
+            final var unknown = client.readPackage(new PackageURL(UNKNOWN));
+
+            assertThat(meta.getTitle()).contains(TITLE);
+            assertThat(unknown).isEmpty();
+            assertThat(mockServer.getRequestCount()).isEqualTo(2);
+            assertThat(mockServer.takeRequest().getMethod()).isEqualTo("POST");
+            assertThat(mockServer.takeRequest().getMethod()).isEqualTo("POST");
+        }
+
+        @Test
+        void fallsBackToIndividualLookups() throws Exception {
+            stub.withoutBulk();
+
+            client.prefetch(List.of(new PackageURL(PURL), new PackageURL(OTHER)));
+            client.prefetch(List.of(new PackageURL(OTHER)));
+            final var meta = client.readPackage(new PackageURL(PURL)).orElseThrow();
+
+            assertThat(meta.getTitle()).contains(TITLE);
+            assertThat(mockServer.getRequestCount()).isEqualTo(2);
+            assertThat(mockServer.takeRequest().getMethod()).isEqualTo("POST");
+            assertThat(mockServer.takeRequest().getMethod()).isEqualTo("GET");
+        }
+
+        @Test
+        void skipsCachedPackages(@TempDir Path directory) throws Exception {
+            final var cached = new BomBaseClient(URI.create("http://localhost:" + PORT), new PackageCache(directory, Duration.ofHours(1)));
+            cached.readPackage(new PackageURL(PURL));
+
+            cached.prefetch(List.of(new PackageURL(PURL), new PackageURL(OTHER)));
+
+            assertThat(mockServer.getRequestCount()).isEqualTo(2);
+            mockServer.takeRequest();
+            final var bulk = mockServer.takeRequest();
+            assertThat(bulk.getMethod()).isEqualTo("POST");
+            assertThat(bulk.getBody().readUtf8()).contains(OTHER).doesNotContain(PURL);
+        }
+    }
 }
@@ -8,6 +8,7 @@ package com.philips.research.spdxbuilder.persistence.bom_base;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.philips.research.spdxbuilder.core.KnowledgeBase;
+import com.philips.research.spdxbuilder.core.PollingScheduler;
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.LicenseParser;
 import com.philips.research.spdxbuilder.core.domain.Package;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.net.URI;
 import java.net.URL;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -94,6 +96,27 @@ class BomBaseKnowledgeBaseTest {
         assertThat(pkg.getDetectedLicenses()).contains(LicenseParser.parse(DETECTED_LICENSE));
     }
 
+    @Test
+    void prefetchesExternalPackages() {
+        bom.addPackage(new Package(NAMESPACE, NAME, "internal").setPurl(packageUrl("pkg:maven/group/internal@1")).setInternal(true));
+
+        knowledgeBase.enhance(bom);
+
+        verify(client).prefetch(List.of(PURL));
+    }
+
+    @Test
+    void refreshesMetadataWhilePolling() {
+        when(client.readPackage(PURL)).thenReturn(Optional.empty());
+        when(client.readPackage(PURL, true)).thenReturn(Optional.of(meta));
+        knowledgeBase.setPolling(new PollingScheduler(Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(5), 1));
+
+        final var success = knowledgeBase.enhance(bom);
+
+        assertThat(success).isTrue();
+        verify(client).readPackage(PURL, true);
+    }
+
     @Test
     void skipsEnhancementOfInternalPackages() {
         bom.addPackage(pkg.setInternal(true));
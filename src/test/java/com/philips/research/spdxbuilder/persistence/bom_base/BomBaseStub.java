@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.bom_base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a BOM-base server, serving both individual and bulk package lookups from memory.
+ * Install on a <code>MockWebServer</code> using <code>setDispatcher()</code>.
+ */
+class BomBaseStub extends Dispatcher {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PACKAGES = "/packages";
+
+    private final Map<String, Map<String, Object>> packages = new ConcurrentHashMap<>();
+    private boolean bulk = true;
+    private Duration latency = Duration.ZERO;
+
+    BomBaseStub withPackage(String purl, Map<String, Object> attributes) {
+        packages.put(purl, attributes);
+        return this;
+    }
+
+    /**
+     * Mimics a server that only supports individual lookups.
+     */
+    BomBaseStub withoutBulk() {
+        bulk = false;
+        return this;
+    }
+
+    /**
+     * Delays every response to mimic the round trip to a remote server.
+     */
+    BomBaseStub withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        final @NullOr String path = request.getPath();
+        try {
+            if ("POST".equals(request.getMethod()) && PACKAGES.equals(path) && bulk) {
+                return respond(bulkLookup(request));
+            }
+            if ("GET".equals(request.getMethod()) && path != null && path.startsWith(PACKAGES + '/')) {
+                final var purl = decode(decode(path.substring(PACKAGES.length() + 1)));
+                final @NullOr Map<String, Object> attributes = packages.get(purl);
+                return (attributes != null) ? respond(Map.of("attributes", attributes)) : delayed(404);
+            }
+            return delayed(404);
+        } catch (IOException e) {
+            return delayed(400);
+        }
+    }
+
+    private Map<String, Object> bulkLookup(RecordedRequest request) throws IOException {
+        final var json = MAPPER.readTree(request.getBody().clone().readUtf8());
+        final var result = new HashMap<String, Object>();
+        json.path("purls").forEach(node -> {
+            final @NullOr Map<String, Object> attributes = packages.get(node.asText());
+            if (attributes != null) {
+                result.put(node.asText(), Map.of("attributes", attributes));
+            }
+        });
+        return result;
+    }
+
+    private MockResponse respond(Object body) throws IOException {
+        return delayed(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(MAPPER.writeValueAsString(body));
+    }
+
+    private MockResponse delayed(int status) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeadersDelay(latency.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private String decode(String string) {
+        return URLDecoder.decode(string, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.bom_base;
+
+import com.philips.research.spdxbuilder.persistence.bom_base.BomBaseApi.PackageJson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageCacheTest {
+    private static final String PURL = "pkg:maven/group/name@version";
+    private static final String TITLE = "Title";
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration NEGATIVE_TTL = Duration.ofHours(1);
+    private static final Instant NOW = Instant.parse("2021-01-01T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private PackageCache cacheAt(Instant instant) {
+        return new PackageCache(directory, TTL, NEGATIVE_TTL, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private PackageJson packageJson() {
+        final var pkg = new PackageJson();
+        pkg.attributes = Map.of("title", TITLE);
+        return pkg;
+    }
+
+    @Test
+    void missesUnknownPackage() {
+        assertThat(cacheAt(NOW).read(PURL)).isEmpty();
+    }
+
+    @Test
+    void readsCachedMetadata() {
+        cacheAt(NOW).write(PURL, packageJson());
+
+        final var entry = cacheAt(NOW.plus(TTL)).read(PURL).orElseThrow();
+
+        assertThat(entry.getPackage().orElseThrow().getTitle()).contains(TITLE);
+    }
+
+    @Test
+    void readsNegativeEntry() {
+        cacheAt(NOW).write(PURL, null);
+
+        final var entry = cacheAt(NOW.plus(NEGATIVE_TTL)).read(PURL).orElseThrow();
+
+        assertThat(entry.getPackage()).isEmpty();
+    }
+
+    @Test
+    void expiresMetadata() {
+        cacheAt(NOW).write(PURL, packageJson());
+
+        assertThat(cacheAt(NOW.plus(TTL).plusSeconds(1)).read(PURL)).isEmpty();
+    }
+
+    @Test
+    void expiresNegativeEntryEarlier() {
+        cacheAt(NOW).write(PURL, null);
+
+        assertThat(cacheAt(NOW.plus(NEGATIVE_TTL).plusSeconds(1)).read(PURL)).isEmpty();
+    }
+
+    @Test
+    void replacesExistingEntry() {
+        cacheAt(NOW).write(PURL, null);
+        cacheAt(NOW).write(PURL, packageJson());
+
+        assertThat(cacheAt(NOW).read(PURL).orElseThrow().getPackage()).isPresent();
+    }
+
+    @Test
+    void ignoresCorruptEntry() throws Exception {
+        final var cache = cacheAt(NOW);
+        cache.write(PURL, packageJson());
+        try (final var files = Files.walk(directory)) {
+            final var file = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+            Files.writeString(file, "{corrupt");
+        }
+
+        assertThat(cache.read(PURL)).isEmpty();
+    }
+}
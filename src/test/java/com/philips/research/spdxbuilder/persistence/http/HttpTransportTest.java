@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.http;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpTransportTest {
+    @Test
+    void configuresClient() {
+        final var transport = HttpTransport.builder()
+                .maxRequests(10)
+                .maxRequestsPerHost(7)
+                .preferHttp2(false)
+                .connectTimeout(Duration.ofSeconds(3))
+                .readTimeout(Duration.ofSeconds(42))
+                .build();
+
+        final var client = transport.client();
+
+        assertThat(client.dispatcher().getMaxRequests()).isEqualTo(10);
+        assertThat(client.dispatcher().getMaxRequestsPerHost()).isEqualTo(7);
+        assertThat(client.protocols()).containsExactly(Protocol.HTTP_1_1);
+        assertThat(client.connectTimeoutMillis()).isEqualTo(3_000);
+        assertThat(client.readTimeoutMillis()).isEqualTo(42_000);
+    }
+
+    @Test
+    void limitsConcurrentSynchronousRequestsPerHost() throws Exception {
+        final var active = new AtomicInteger();
+        final var peak = new AtomicInteger();
+        try (var server = new MockWebServer()) {
+            server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    active.decrementAndGet();
+                    return new MockResponse();
+                }
+            });
+            server.start();
+            final var client = HttpTransport.builder().maxRequestsPerHost(2).build().client();
+            final var executor = Executors.newFixedThreadPool(8);
+            try {
+                final var calls = new ArrayList<Future<Integer>>();
+                for (int i = 0; i < 8; i++) {
+                    calls.add(executor.submit(() -> {
+                        try (var response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+                            return response.code();
+                        }
+                    }));
+                }
+                for (var call : calls) {
+                    assertThat(call.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void allowsAllRequestsPerHost() {
+        final var transport = HttpTransport.builder()
+                .maxRequests(4)
+                .maxRequestsPerHost(20)
+                .build();
+
+        assertThat(transport.client().dispatcher().getMaxRequests()).isEqualTo(20);
+    }
+
+    @Test
+    void prefersHttp2ByDefault() {
+        final var client = HttpTransport.builder().build().client();
+
+        assertThat(client.protocols()).containsExactly(Protocol.HTTP_2, Protocol.HTTP_1_1);
+    }
+
+    @Test
+    void sharesConnectionsWithDerivedClients() {
+        final var transport = HttpTransport.builder().build();
+
+        final var derived = transport.newClient().readTimeout(Duration.ofMinutes(5)).build();
+
+        assertThat(derived.connectionPool()).isSameAs(transport.client().connectionPool());
+        assertThat(derived.dispatcher()).isSameAs(transport.client().dispatcher());
+    }
+
+    @Test
+    void providesDefaultTransport() {
+        assertThat(HttpTransport.getDefault()).isSameAs(HttpTransport.getDefault());
+    }
+
+    @Test
+    void throws_invalidLimit() {
+        assertThatThrownBy(() -> HttpTransport.builder().maxRequestsPerHost(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least 1");
+    }
+}
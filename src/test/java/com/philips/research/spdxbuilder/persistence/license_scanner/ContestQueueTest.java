@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.license_scanner;
+
+import com.github.packageurl.PackageURL;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static com.philips.research.spdxbuilder.persistence.license_scanner.LicenseKnowledgeBaseTest.purlFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ContestQueueTest {
+    private static final PackageURL PURL = purlFrom("pkg:maven/namespace/name@version");
+    private static final PackageURL OTHER = purlFrom("pkg:maven/namespace/other@version");
+    private static final String LICENSE = "MIT";
+
+    private final LicenseScannerClient client = mock(LicenseScannerClient.class);
+    private final ContestQueue queue = new ContestQueue(client, Duration.ofMillis(1), Duration.ofSeconds(5));
+
+    @Test
+    void submitsContestsInBackground() {
+        queue.contest(PURL, LICENSE);
+        queue.contest(OTHER, LICENSE);
+
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(2);
+        assertThat(summary.failures).isEmpty();
+        verify(client).contest(PURL, LICENSE);
+        verify(client).contest(OTHER, LICENSE);
+    }
+
+    @Test
+    void contestsPackageOnlyOnce() {
+        queue.contest(PURL, LICENSE);
+        queue.contest(PURL, "Other");
+
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(1);
+        verify(client).contest(PURL, LICENSE);
+    }
+
+    @Test
+    void retriesFailedSubmission() {
+        doThrow(new LicenseScannerException("Busy")).doNothing().when(client).contest(PURL, LICENSE);
+
+        queue.contest(PURL, LICENSE);
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(1);
+        verify(client, times(2)).contest(PURL, LICENSE);
+    }
+
+    @Test
+    void reportsFailedSubmission() {
+        doThrow(new LicenseScannerException("Down")).when(client).contest(PURL, LICENSE);
+
+        queue.contest(PURL, LICENSE);
+        queue.contest(OTHER, LICENSE);
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(1);
+        assertThat(summary.failures).hasSize(1);
+        assertThat(summary.failures.get(0)).contains(PURL.toString()).contains("Down");
+        verify(client, times(ContestQueue.ATTEMPTS)).contest(PURL, LICENSE);
+    }
+
+    @Test
+    void reportsUnexpectedSubmissionFailure() {
+        doThrow(new IllegalArgumentException("Bad")).when(client).contest(PURL, LICENSE);
+
+        queue.contest(PURL, LICENSE);
+        queue.contest(OTHER, LICENSE);
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(1);
+        assertThat(summary.failures).hasSize(1);
+        assertThat(summary.failures.get(0)).contains(PURL.toString()).contains("Bad");
+        verify(client).contest(PURL, LICENSE);
+    }
+
+    @Test
+    void sendsBatchConcurrently() {
+        final var barrier = new CyclicBarrier(2);
+        doAnswer(invocation -> barrier.await(5, TimeUnit.SECONDS)).when(client).contest(any(), any());
+
+        queue.contest(PURL, LICENSE);
+        queue.contest(OTHER, LICENSE);
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isEqualTo(2);
+        assertThat(summary.failures).isEmpty();
+    }
+
+    @Test
+    void givesUpOnPendingContestsAfterTimeout() {
+        final var limited = new ContestQueue(client, Duration.ofMillis(1), Duration.ofMillis(100));
+        final var release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(client).contest(PURL, LICENSE);
+
+        limited.contest(PURL, LICENSE);
+        final var summary = limited.finish();
+        release.countDown();
+
+        assertThat(summary.submitted).isZero();
+        assertThat(summary.unsent + summary.failures.size()).isEqualTo(1);
+    }
+
+    @Test
+    void finishesWithoutContests() {
+        final var summary = queue.finish();
+
+        assertThat(summary.submitted).isZero();
+        verifyNoInteractions(client);
+    }
+}
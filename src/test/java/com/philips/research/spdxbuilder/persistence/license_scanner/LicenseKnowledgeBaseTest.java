@@ -55,6 +55,7 @@ class LicenseKnowledgeBaseTest {
         when(client.scanLicense(eq(PURL), any())).thenReturn(Optional.of(info));
 
         knowledgeBase.enhance(bom);
+        knowledgeBase.finish();
 
         assertThat(pkg.getConcludedLicense()).isEmpty();
         verify(client).contest(PURL, LICENSE.toString());
@@ -5,13 +5,18 @@
 
 package com.philips.research.spdxbuilder.persistence.ort;
 
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
 import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.Relation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -115,4 +120,70 @@ class OrtJsonTest {
             assertThat(result.getSourceLocation()).contains(URI.create(VALID_URL + "@" + VERSION));
         }
     }
+
+    @Nested
+    class DependencyJsonTest {
+        private final BillOfMaterials bom = new BillOfMaterials();
+        private final Package project = new Package(TYPE, NAMESPACE, NAME);
+        private final DependencyJson scope = new DependencyJson();
+        private final Map<String, Package> dictionary = new HashMap<>();
+
+        private DependencyJson dependency(String id, DependencyJson... dependencies) {
+            final var dep = new DependencyJson();
+            dep.id = id;
+            dep.dependencies.addAll(List.of(dependencies));
+            return dep;
+        }
+
+        private void register() {
+            scope.putAllDependencies(dictionary);
+            dictionary.replaceAll((id, pkg) -> new Package(TYPE, NAMESPACE, id));
+            scope.registerRelations(bom, project, dictionary, new HashSet<>());
+        }
+
+        @Test
+        void registersTransitiveRelations() {
+            final var child = dependency("child");
+            final var parent = dependency("parent", child);
+            parent.linkage = "STATIC";
+            scope.dependencies.add(parent);
+
+            register();
+
+            assertThat(bom.getRelations()).containsExactlyInAnyOrder(
+                    new Relation(project, dictionary.get("parent"), Relation.Type.STATICALLY_LINKS),
+                    new Relation(dictionary.get("parent"), dictionary.get("child"), Relation.Type.DYNAMICALLY_LINKS));
+        }
+
+        @Test
+        void expandsRepeatedSubgraphsOnlyOnce() {
+            // Every level depends on both nodes of the next level, doubling the paths per level
+            final int levels = 40;
+            var next = List.<DependencyJson>of();
+            for (int i = levels - 1; i >= 0; i--) {
+                next = List.of(dependency("a" + i, next.toArray(new DependencyJson[0])),
+                        dependency("b" + i, next.toArray(new DependencyJson[0])));
+            }
+            scope.dependencies.addAll(next);
+
+            register();
+
+            assertThat(dictionary).hasSize(2 * levels);
+            assertThat(bom.getRelations()).hasSize(2 + 4 * (levels - 1));
+        }
+
+        @Test
+        void registersDeepGraphsWithoutRecursion() {
+            final int depth = 100_000;
+            var dep = dependency("leaf");
+            for (int i = 0; i < depth; i++) {
+                dep = dependency("dep" + i, dep);
+            }
+            scope.dependencies.add(dep);
+
+            register();
+
+            assertThat(bom.getRelations()).hasSize(depth + 1);
+        }
+    }
 }
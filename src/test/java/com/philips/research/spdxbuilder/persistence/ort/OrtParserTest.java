@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.ort;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrtParserTest {
+    private static final File ORT_SAMPLE = Path.of("src", "test", "resources", "ort_sample.yml").toFile();
+    private static final String PROJECT = "NPM::mime-types:2.1.18";
+    private static final String OTHER_PROJECT = "NPM::skipme:1.2.3";
+    private static final String REFERENCED = "NPM::dependency:1.0";
+    private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.NON_PRIVATE)
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    @Test
+    void readsOnlySelectedProjects() throws Exception {
+        final var ort = new OrtParser(MAPPER, Set.of(PROJECT), yaml -> Set.of()).parse(ORT_SAMPLE);
+
+        //noinspection ConstantConditions
+        final var result = ort.analyzer.result;
+        assertThat(result.projects).hasSize(1);
+        assertThat(result.projects.get(0).id).isEqualTo(PROJECT);
+        assertThat(result.projects.get(0).scopes).hasSize(3);
+        assertThat(result.detected.stream().map(p -> p.id)).containsExactly(PROJECT, OTHER_PROJECT);
+        assertThat(result.hasIssues).isFalse();
+    }
+
+    @Test
+    void readsRepositoryExcludes() throws Exception {
+        final var ort = new OrtParser(MAPPER, Set.of(), yaml -> Set.of()).parse(ORT_SAMPLE);
+
+        //noinspection ConstantConditions
+        assertThat(ort.repository.getExcludePaths()).hasSize(1);
+        assertThat(ort.repository.getExcludeScopes()).hasSize(1);
+    }
+
+    @Test
+    void readsOnlyReferencedPackages() throws Exception {
+        final var ort = new OrtParser(MAPPER, Set.of(PROJECT), yaml -> {
+            //noinspection ConstantConditions
+            assertThat(yaml.analyzer.result.projects).hasSize(1);
+            return Set.of(REFERENCED);
+        }).parse(ORT_SAMPLE);
+
+        //noinspection ConstantConditions
+        final var ids = ort.analyzer.result.packages().map(pkg -> pkg.id).collect(Collectors.toList());
+        assertThat(ids).containsExactly(REFERENCED);
+    }
+}
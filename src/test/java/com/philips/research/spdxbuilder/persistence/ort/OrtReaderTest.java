@@ -6,10 +6,14 @@
 package com.philips.research.spdxbuilder.persistence.ort;
 
 import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.Package;
+import com.philips.research.spdxbuilder.core.domain.Relation;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -22,6 +26,7 @@ class OrtReaderTest {
     private static final Path SAMPLES_DIR = Path.of("src", "test", "resources");
     private static final File ORT_SAMPLE = SAMPLES_DIR.resolve("ort_sample.yml").toFile();
     private static final File ORT_SAMPLE_WITH_ISSUE = SAMPLES_DIR.resolve("ort_with_issue.yml").toFile();
+    private static final File ORT_GRAPH_SAMPLE = SAMPLES_DIR.resolve("ort_graph_sample.yml").toFile();
 
     private final BillOfMaterials bom = new BillOfMaterials();
 
@@ -38,6 +43,35 @@ class OrtReaderTest {
         assertThat(bom.getPackages()).hasSize(1 + 2);
     }
 
+    @Test
+    void loadsDependencyGraphSample() {
+        new OrtReader(ORT_GRAPH_SAMPLE)
+                .defineProjectPackage("Gradle:com.example:app:1.0", null)
+                .excludeScopes("Gradle:com.example:app:1.0", List.of("test*"))
+                .read(bom);
+
+        assertThat(bom.getPackages()).extracting(Package::getName).containsExactly("app", "lib", "shared");
+        final var app = bom.getPackages().get(0);
+        final var lib = bom.getPackages().get(1);
+        final var shared = bom.getPackages().get(2);
+        assertThat(bom.getRelations()).containsExactlyInAnyOrder(
+                new Relation(app, lib, Relation.Type.DYNAMICALLY_LINKS),
+                new Relation(lib, shared, Relation.Type.STATICALLY_LINKS));
+    }
+
+    @Test
+    void rejectsDependencyGraphWithInvalidIndexes(@TempDir Path dir) throws Exception {
+        final var file = dir.resolve("invalid_graph.yml");
+        Files.writeString(file, Files.readString(ORT_GRAPH_SAMPLE.toPath())
+                .replace("to: 1", "to: 7"));
+
+        assertThatThrownBy(() -> new OrtReader(file.toFile())
+                .defineProjectPackage("Gradle:com.example:app:1.0", null)
+                .read(bom))
+                .isInstanceOf(OrtReaderException.class)
+                .hasMessageContaining("Edge 0 ends at node index 7");
+    }
+
     @Test()
     void abortsOnAnalyzerIssues() {
         assertThatThrownBy(() -> createBOM(ORT_SAMPLE_WITH_ISSUE))
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+    private final LongHashSet set = new LongHashSet();
+
+    @Test
+    void addsValueOnlyOnce() {
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(Long.MAX_VALUE)).isTrue();
+
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.add(Long.MAX_VALUE)).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        for (long i = 0; i < 10_000; i++) {
+            assertThat(set.add(i << 35)).isTrue();
+        }
+
+        for (long i = 0; i < 10_000; i++) {
+            assertThat(set.add(i << 35)).isFalse();
+        }
+        assertThat(set.size()).isEqualTo(10_000);
+    }
+}
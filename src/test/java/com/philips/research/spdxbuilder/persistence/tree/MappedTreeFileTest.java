@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedTreeFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEmptyFile() throws Exception {
+        assertThat(readLines("", 1024)).isEmpty();
+    }
+
+    @Test
+    void splitsLinesAtAnyLineTerminator() throws Exception {
+        final var lines = readLines("first\nsecond\r\nthird\rfourth\n\nlast", 1024);
+
+        assertThat(lines).containsExactly("first", "second", "third", "fourth", "", "last");
+    }
+
+    @Test
+    void ignoresTerminatorAtEndOfFile() throws Exception {
+        assertThat(readLines("first\nsecond\n", 1024)).containsExactly("first", "second");
+    }
+
+    @Test
+    void decodesNonAsciiLines() throws Exception {
+        final var lines = readLines("├── name@1\n└── other@2", 1024);
+
+        assertThat(lines).containsExactly("├── name@1", "└── other@2");
+    }
+
+    @Test
+    void continuesLinesAcrossMappedWindows() throws Exception {
+        final var lines = readLines("first\r\nsecond\r\nthird line\nfourth", 12);
+
+        assertThat(lines).containsExactly("first", "second", "third line", "fourth");
+    }
+
+    @Test
+    void skipsLineFeedOfTerminatorSplitAcrossWindows() throws Exception {
+        final var lines = readLines("ab\r\ncd\r\nef", 3);
+
+        assertThat(lines).containsExactly("ab", "cd", "ef");
+    }
+
+    @Test
+    void throws_lineExceedsWindow() throws Exception {
+        final var file = write("too long line\nshort");
+
+        try (var mapped = new MappedTreeFile(file, 8)) {
+            assertThatThrownBy(mapped::next)
+                    .isInstanceOf(TreeException.class)
+                    .hasMessageContaining("exceeds");
+        }
+    }
+
+    @Test
+    void exposesAsciiLinesAsCharacterView() throws Exception {
+        final var file = write("prefix:name:version\n");
+
+        try (var mapped = new MappedTreeFile(file)) {
+            final var line = mapped.next();
+
+            assertThat(line).isInstanceOf(MappedTreeFile.AsciiSequence.class);
+            assertThat(line.length()).isEqualTo(19);
+            assertThat(line.charAt(7)).isEqualTo('n');
+            assertThat(line.subSequence(7, 11).toString()).isEqualTo("name");
+            assertThatThrownBy(() -> line.charAt(19)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    private List<String> readLines(String content, int window) throws IOException {
+        final var lines = new ArrayList<String>();
+        try (var mapped = new MappedTreeFile(write(content), window)) {
+            CharSequence line = mapped.next();
+            while (line != null) {
+                lines.add(line.toString());
+                line = mapped.next();
+            }
+        }
+        return lines;
+    }
+
+    private File write(String content) throws IOException {
+        final var path = directory.resolve("tree.txt");
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toFile();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameTableTest {
+    private final NameTable<Integer> table = new NameTable<>();
+
+    @Test
+    void looksUpKeyByCharacterSequence() {
+        table.put("name", 42);
+
+        assertThat(table.get(new StringBuilder("name"))).isEqualTo(42);
+        assertThat(table.get("name")).isEqualTo(42);
+        assertThat(table.get("other")).isNull();
+    }
+
+    @Test
+    void replacesValueOfExistingKey() {
+        table.put("name", 1);
+        table.put("name", 2);
+
+        assertThat(table.get("name")).isEqualTo(2);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("key" + i, i);
+        }
+
+        assertThat(table.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(table.get(new StringBuilder("key").append(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void clearsAllKeys() {
+        table.put("name", 1);
+
+        table.clear();
+
+        assertThat(table.get("name")).isNull();
+        assertThat(table.size()).isZero();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.spdxbuilder.persistence.tree;
+
+import com.philips.research.spdxbuilder.core.domain.BillOfMaterials;
+import com.philips.research.spdxbuilder.core.domain.Package;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeScannerTest {
+    private final TreeFormats formats = new TreeFormats();
+    private final LineScanner.Coordinates coordinates = new LineScanner.Coordinates();
+
+    @Test
+    void selectsScannerForBuiltInFormats() {
+        assertThat(formats.plan("maven").scanner).isEqualTo(NativeScanner.MAVEN);
+        assertThat(formats.plan("gradle").scanner).isEqualTo(NativeScanner.GRADLE);
+        assertThat(formats.plan("npm").scanner).isEqualTo(NativeScanner.NPM);
+        assertThat(formats.plan("purl").scanner).isEqualTo(NativeScanner.PURL);
+        assertThat(formats.plan("rust").scanner).isNull();
+    }
+
+    @Test
+    void usesRegexForCustomFormats() {
+        final File custom = Path.of("src", "test", "resources", "custom_formats.yml").toFile();
+
+        assertThat(formats.extend(custom).plan("custom").scanner).isNull();
+    }
+
+    @Test
+    void disablesScannerWhenCoordinatesAreOverridden() {
+        final var plan = formats.plan("gradle").toBuilder().withName("(.*)", 1).build();
+
+        assertThat(plan.scanner).isNull();
+    }
+
+    @Test
+    void scansGradleCoordinates() {
+        assertThat(NativeScanner.GRADLE.scan("com.group:upgraded:1.2.3 -> 2.3.4 (*)", coordinates)).isTrue();
+
+        assertThat(coordinates.namespace).isEqualTo("com.group");
+        assertThat(coordinates.name).isEqualTo("upgraded");
+        assertThat(coordinates.version).isEqualTo("2.3.4");
+    }
+
+    @Test
+    void rejectsUnrecognizedLines() {
+        assertThat(NativeScanner.GRADLE.scan("com.group:constrained -> 2.0", coordinates)).isFalse();
+        assertThat(NativeScanner.MAVEN.scan("group:artifact", coordinates)).isFalse();
+        assertThat(NativeScanner.NPM.scan("UNMET DEPENDENCY name", coordinates)).isFalse();
+        assertThat(NativeScanner.PURL.scan("pkg:npm/%40scope/name@1.0", coordinates)).isFalse();
+    }
+
+    @Test
+    void mavenMatchesRegex() {
+        assertSameResult("maven",
+                "[INFO] --- maven-dependency-plugin:2.8:tree (default-cli) @ my-project ---",
+                "[INFO] com.example:my-project:jar:1.0-SNAPSHOT",
+                "[INFO] +- org.group:artifact:jar:1.2.3:compile",
+                "[INFO] |  \\- org.other:library:jar:classifier:4.5:runtime",
+                "[INFO] +- org.group:tested:jar:2.0:test",
+                "[INFO] \\- org.group:last:pom:3.0:compile (optional)",
+                "[INFO] ------------------------------------------------------------------------");
+    }
+
+    @Test
+    void gradleMatchesRegex() {
+        assertSameResult("gradle",
+                "runtimeClasspath - Runtime classpath of source set 'main'.",
+                "+--- com.group:artifact:1.2",
+                "|    +--- com.group:child:1.2.1 (*)",
+                "+--- com.group:upgraded:1.2.3 -> 2.3.4",
+                "+--- com.group:ranged:[1.0,2.0) -> 1.5 (c)",
+                "\\--- com.group:snapshot:1.0-SNAPSHOT (n)",
+                "");
+    }
+
+    @Test
+    void npmMatchesRegex() {
+        assertSameResult("npm",
+                "my-project@1.0.0 /path/to/project",
+                "├─┬ @scope/name@1.2.3",
+                "│ ├── plain@0.1.0 deduped",
+                "│ └── nested@2.0.0-beta.1",
+                "└── odd@name@3.0.0");
+    }
+
+    @Test
+    void purlMatchesRegex() {
+        assertSameResult("purl",
+                "TREE start",
+                "pkg:maven/com.example/root@1.0",
+                "  pkg:npm/name@1.0 [dynamic]",
+                "  pkg:npm/%40scope/name@2.0 [static]",
+                "    pkg:generic/a/b/c@3.0",
+                "  pkg:pypi/name@4.0?qualifier=x [dev]",
+                "TREE end");
+    }
+
+    private void assertSameResult(String format, String... lines) {
+        final var plan = formats.plan(format);
+        assertThat(plan.scanner).isNotNull();
+
+        final var scanned = parse(plan, lines);
+        final var regex = parse(plan.toBuilder().withScanner(null).build(), lines);
+
+        assertThat(scanned.getPackages()).isNotEmpty();
+        assertThat(purls(scanned)).isEqualTo(purls(regex));
+        assertThat(relations(scanned)).isEqualTo(relations(regex));
+    }
+
+    private BillOfMaterials parse(TreeFormat plan, String... lines) {
+        final var bom = new BillOfMaterials();
+        final var parser = new TreeParser(bom).withFormat(plan);
+        for (var line : lines) {
+            parser.parse(line);
+        }
+        return bom;
+    }
+
+    private List<String> relations(BillOfMaterials bom) {
+        return bom.getRelations().stream()
+                .map(Object::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<String> purls(BillOfMaterials bom) {
+        return bom.getPackages().stream()
+                .map(Package::getPurl)
+                .map(purl -> purl.map(Object::toString).orElse(""))
+                .collect(Collectors.toList());
+    }
+}
@@ -35,6 +35,32 @@ class TreeFormatsTest {
         assertThat(Mockito.mockingDetails(parser).getInvocations().size()).isGreaterThan(0);
     }
 
+    @Test
+    void compilesFormatOnlyOnce() {
+        final var plan = format.plan("gradle");
+
+        assertThat(format.plan("gradle")).isSameAs(plan);
+        assertThat(format.plan("maven")).isNotSameAs(plan);
+    }
+
+    @Test
+    void inheritsSettingsFromParentFormat() {
+        final var plan = format.plan("maven");
+
+        assertThat(plan.identifier.pattern()).isEqualTo("[\\w]");
+        assertThat(plan.typeMapping).containsEntry("", "maven");
+        assertThat(plan.version.group).isEqualTo(4);
+    }
+
+    @Test
+    void groupsCoordinateMasksByRegex() {
+        assertThat(TreeFormat.DEFAULT.coordinatePatterns).hasSize(1);
+        assertThat(format.plan("maven").coordinatePatterns).hasSize(1);
+        final var gradle = format.plan("gradle");
+        assertThat(gradle.coordinatePatterns).hasSize(2);
+        assertThat(gradle.coordinateIndex).containsExactly(0, 0, 1);
+    }
+
     @Test
     void throws_unknownFormat() {
         //noinspection ConstantConditions
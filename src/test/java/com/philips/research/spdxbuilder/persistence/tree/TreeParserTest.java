@@ -173,6 +173,40 @@ class TreeParserTest {
                     new Package(NAMESPACE, NAME, "3"));
         }
 
+        @Test
+        void linksRepeatedPackageWithoutItsSubtree() {
+            parser.withRepeated("\\s\\(\\*\\)$");
+
+            parser.parse(PACKAGE1);
+            parser.parse("->" + PACKAGE2);
+            parser.parse("--->" + PACKAGE3);
+            parser.parse(PACKAGE1);
+            parser.parse("->" + PACKAGE2 + " (*)");
+            parser.parse("--->" + PACKAGE1);
+
+            final var pkg1 = new Package(NAMESPACE, NAME, "1");
+            final var pkg2 = new Package(NAMESPACE, NAME, "2");
+            final var pkg3 = new Package(NAMESPACE, NAME, "3");
+            assertThat(bom.getPackages()).containsExactly(pkg1, pkg2, pkg3);
+            assertThat(bom.getRelations()).containsExactlyInAnyOrder(
+                    new Relation(pkg1, pkg2, Relation.Type.DYNAMICALLY_LINKS),
+                    new Relation(pkg2, pkg3, Relation.Type.DYNAMICALLY_LINKS));
+        }
+
+        @Test
+        void parsesRepeatedPackageThatWasNotListedBefore() {
+            parser.withRepeated("\\s\\(\\*\\)$");
+
+            parser.parse(PACKAGE1);
+            parser.parse("->" + PACKAGE2 + " (*)");
+            parser.parse("->" + PACKAGE3);
+
+            assertThat(bom.getPackages()).containsExactly(
+                    new Package(NAMESPACE, NAME, "1"),
+                    new Package(NAMESPACE, NAME, "2"),
+                    new Package(NAMESPACE, NAME, "3"));
+        }
+
         @Test
         void marksRootPackagesInternalByDefault() {
             parser.parse(PACKAGE1);
@@ -11,12 +11,15 @@ import com.philips.research.spdxbuilder.core.domain.Relation;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -40,6 +43,31 @@ class TreeReaderTest {
                 new Package("ns", "sub", "2"));
     }
 
+    @Test
+    void readsTreeFromFile(@TempDir Path directory) throws Exception {
+        final var file = directory.resolve("tree.txt");
+        Files.writeString(file, "main@1\n├── sub@2\n│   └── @scope/nested@3\n└── other@4\n");
+
+        new TreeReader(file.toFile(), "npm", null, List.of()).read(bom);
+
+        assertThat(bom.getPackages()).containsExactly(
+                new Package("", "main", "1"),
+                new Package("", "sub", "2"),
+                new Package("@scope", "nested", "3"),
+                new Package("", "other", "4"));
+        final var main = bom.getPackages().get(0);
+        assertThat(bom.getRelationsFrom(main)).hasSize(2);
+    }
+
+    @Test
+    void throws_missingFile(@TempDir Path directory) {
+        final var reader = new TreeReader(directory.resolve("missing.txt").toFile(), "npm", null, List.of());
+
+        assertThatThrownBy(() -> reader.read(bom))
+                .isInstanceOf(TreeException.class)
+                .hasMessageContaining("read the tree data");
+    }
+
     @Test
     void switchesFormats() {
         final var stream = stream(
@@ -79,6 +107,78 @@ class TreeReaderTest {
                 .hasMessageContaining("package identifier");
     }
 
+    @Nested
+    class ParallelReading {
+        private final String[] lines = {
+                "main@1.0",
+                "├── other@2",
+                "### rust",
+                "  ├── sub v3",
+                "### npm",
+                "second@1.0",
+                "└── other@2",
+                "### gradle",
+                "Ignored preamble",
+                "runtimeClasspath - Runtime classpath",
+                "+--- ns:a:1",
+                "|    \\--- ns:b:2",
+                "+--- ns:c:3",
+                "|    +--- ns:b:2 (*)",
+                "|    \\--- ns:d:4",
+                "",
+                "ignored:after:end"};
+
+        @Test
+        void buildsSameTreeAsSequentialRead() {
+            final var expected = new BillOfMaterials();
+            new TreeReader(stream(lines), "npm", null, List.of()).read(expected);
+
+            new TreeReader(stream(lines), "npm", null, List.of())
+                    .setParallel(4)
+                    .setChunkLines(1)
+                    .read(bom);
+
+            assertThat(bom.getPackages()).containsExactlyElementsOf(expected.getPackages());
+            assertThat(bom.getPackages()).hasSize(8);
+            assertThat(bom.getPackages().stream().map(Package::isInternal))
+                    .containsExactlyElementsOf(expected.getPackages().stream().map(Package::isInternal).collect(Collectors.toList()));
+            assertThat(bom.getRelations()).containsExactlyInAnyOrderElementsOf(expected.getRelations());
+            for (var pkg : bom.getPackages()) {
+                assertThat(bom.getRelationsFrom(pkg)).containsExactlyElementsOf(expected.getRelationsFrom(pkg));
+            }
+        }
+
+        @Test
+        void mergesPackagesByPackageUrl() {
+            final var stream = stream("ns/main@1", "  ns/sub@2", "ns/other@3", "  ns/sub@2", "  ns/main@1");
+
+            new TreeReader(stream, "npm", null, List.of())
+                    .setParallel(2)
+                    .setChunkLines(1)
+                    .read(bom);
+
+            assertThat(bom.getPackages()).containsExactly(
+                    new Package("ns", "main", "1"),
+                    new Package("ns", "sub", "2"),
+                    new Package("ns", "other", "3"));
+            final var main = bom.getPackages().get(0);
+            assertThat(bom.getRelationsTo(main)).hasSize(1);
+            assertThat(bom.getRelationsTo(bom.getPackages().get(1))).hasSize(2);
+        }
+
+        @Test
+        void throws_parsingFailureInChunk() {
+            final var stream = stream("ns/main@1", "Not a valid package");
+            final var reader = new TreeReader(stream, "npm", null, List.of())
+                    .setParallel(2)
+                    .setChunkLines(1);
+
+            assertThatThrownBy(() -> reader.read(bom))
+                    .isInstanceOf(TreeException.class)
+                    .hasMessageContaining("package identifier");
+        }
+    }
+
     @NotNull
     private InputStream stream(String... lines) {
         return new ByteArrayInputStream(String.join("\n", lines).getBytes());